@@ -0,0 +1,66 @@
+package com.example.githubrepository.benchmark;
+
+import com.example.githubrepository.dto.RepositoryDto;
+import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.example.githubrepository.dto.RepositoryStatus;
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Repository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+    @Param({"100", "800"})
+    public int repositoryCount;
+
+    @Param({"5"})
+    public int branchesPerRepository;
+
+    private ObjectMapper objectMapper;
+    private List<Repository> repositories;
+    private List<List<Branch>> branches;
+    private RepositoryDtoArray repositoryDtoArray;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        repositories = objectMapper.readValue(GitHubPayloads.repositoriesPage("benchmarkUser", 0, repositoryCount),
+                new TypeReference<>() { });
+        branches = new ArrayList<>();
+        for (Repository repository : repositories) {
+            branches.add(objectMapper.readValue(
+                    GitHubPayloads.branchesPage("benchmarkUser", repository.name(), branchesPerRepository),
+                    new TypeReference<>() { }));
+        }
+        repositoryDtoArray = mapToDtos();
+    }
+
+    @Benchmark
+    public RepositoryDtoArray mapToDtos() {
+        List<RepositoryDto> dtos = new ArrayList<>(repositories.size());
+        for (int i = 0; i < repositories.size(); i++) {
+            Repository repository = repositories.get(i);
+            if (!repository.fork()) {
+                dtos.add(new RepositoryDto(repository.name(), repository.owner(), branches.get(i), repository.fork(),
+                        RepositoryStatus.COMPLETE));
+            }
+        }
+        return new RepositoryDtoArray(dtos);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(repositoryDtoArray);
+    }
+}
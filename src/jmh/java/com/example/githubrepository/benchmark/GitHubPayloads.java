@@ -0,0 +1,110 @@
+package com.example.githubrepository.benchmark;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+public final class GitHubPayloads {
+    private static final List<String> REPOSITORY_URL_FIELDS = List.of(
+            "forks_url", "keys_url", "collaborators_url", "teams_url", "hooks_url", "issue_events_url", "events_url",
+            "assignees_url", "branches_url", "tags_url", "blobs_url", "git_tags_url", "git_refs_url", "trees_url",
+            "statuses_url", "languages_url", "stargazers_url", "contributors_url", "subscribers_url",
+            "subscription_url", "commits_url", "git_commits_url", "comments_url", "issue_comment_url", "contents_url",
+            "compare_url", "merges_url", "archive_url", "downloads_url", "issues_url", "pulls_url", "milestones_url",
+            "notifications_url", "labels_url", "releases_url", "deployments_url");
+
+    private static final List<String> OWNER_URL_FIELDS = List.of(
+            "avatar_url", "url", "html_url", "followers_url", "following_url", "gists_url", "starred_url",
+            "subscriptions_url", "organizations_url", "repos_url", "events_url", "received_events_url");
+
+    private GitHubPayloads() { }
+
+    public static String repositoriesPage(String username, int firstIndex, int count) {
+        StringJoiner page = new StringJoiner(",", "[", "]");
+        for (int i = firstIndex; i < firstIndex + count; i++) {
+            page.add(repository(username, "repository-" + i, i));
+        }
+        return page.toString();
+    }
+
+    public static String branchesPage(String username, String repositoryName, int count) {
+        StringJoiner page = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < count; i++) {
+            String sha = sha(repositoryName.hashCode() * 31L + i);
+            page.add("""
+                    {"name":"branch-%d","commit":{"sha":"%s","url":"https://api.github.com/repos/%s/%s/commits/%s"},"protected":false}"""
+                    .formatted(i, sha, username, repositoryName, sha));
+        }
+        return page.toString();
+    }
+
+    static String repository(String username, String repositoryName, int index) {
+        String apiUrl = "https://api.github.com/repos/" + username + "/" + repositoryName;
+        StringBuilder json = new StringBuilder(6 * 1024)
+                .append("{\"id\":").append(100_000 + index)
+                .append(",\"node_id\":\"R_kgDO").append(index).append("\"")
+                .append(",\"name\":\"").append(repositoryName).append("\"")
+                .append(",\"full_name\":\"").append(username).append('/').append(repositoryName).append("\"")
+                .append(",\"private\":false")
+                .append(",\"owner\":").append(owner(username))
+                .append(",\"html_url\":\"https://github.com/").append(username).append('/').append(repositoryName).append("\"")
+                .append(",\"description\":\"Benchmark repository number ").append(index).append(" with a realistic description\"")
+                .append(",\"fork\":").append(index % 5 == 4)
+                .append(",\"url\":\"").append(apiUrl).append("\"");
+
+        for (String field : REPOSITORY_URL_FIELDS) {
+            json.append(",\"").append(field).append("\":\"").append(apiUrl).append('/')
+                    .append(field.replace("_url", "")).append("{/id}\"");
+        }
+
+        return json
+                .append(",\"created_at\":\"2020-01-01T00:00:00Z\"")
+                .append(",\"updated_at\":\"2024-06-01T12:00:00Z\"")
+                .append(",\"pushed_at\":\"2024-06-01T12:00:00Z\"")
+                .append(",\"git_url\":\"git://github.com/").append(username).append('/').append(repositoryName).append(".git\"")
+                .append(",\"ssh_url\":\"git@github.com:").append(username).append('/').append(repositoryName).append(".git\"")
+                .append(",\"clone_url\":\"https://github.com/").append(username).append('/').append(repositoryName).append(".git\"")
+                .append(",\"svn_url\":\"https://github.com/").append(username).append('/').append(repositoryName).append("\"")
+                .append(",\"homepage\":null,\"size\":").append(1024 + index)
+                .append(",\"stargazers_count\":").append(index * 3)
+                .append(",\"watchers_count\":").append(index * 3)
+                .append(",\"language\":\"Java\"")
+                .append(",\"has_issues\":true,\"has_projects\":true,\"has_downloads\":true,\"has_wiki\":true")
+                .append(",\"has_pages\":false,\"has_discussions\":false,\"forks_count\":").append(index)
+                .append(",\"mirror_url\":null,\"archived\":false,\"disabled\":false,\"open_issues_count\":").append(index % 7)
+                .append(",\"license\":{\"key\":\"mit\",\"name\":\"MIT License\",\"spdx_id\":\"MIT\",\"url\":\"https://api.github.com/licenses/mit\",\"node_id\":\"MDc6TGljZW5zZTEz\"}")
+                .append(",\"allow_forking\":true,\"is_template\":false,\"web_commit_signoff_required\":false")
+                .append(",\"topics\":[\"benchmark\",\"java\",\"spring\"]")
+                .append(",\"visibility\":\"public\",\"forks\":").append(index)
+                .append(",\"open_issues\":").append(index % 7)
+                .append(",\"watchers\":").append(index * 3)
+                .append(",\"default_branch\":\"main\"}")
+                .toString();
+    }
+
+    private static String owner(String username) {
+        StringBuilder json = new StringBuilder(1024)
+                .append("{\"login\":\"").append(username).append("\"")
+                .append(",\"id\":").append(Math.abs(username.hashCode()))
+                .append(",\"node_id\":\"U_kgDO").append(Math.abs(username.hashCode())).append("\"")
+                .append(",\"gravatar_id\":\"\"");
+
+        for (String field : OWNER_URL_FIELDS) {
+            json.append(",\"").append(field).append("\":\"https://api.github.com/users/").append(username).append('/')
+                    .append(field.replace("_url", "")).append("\"");
+        }
+
+        return json
+                .append(",\"type\":\"User\",\"site_admin\":false}")
+                .toString();
+    }
+
+    private static String sha(long seed) {
+        StringBuilder sha = new StringBuilder(40);
+        long value = seed;
+        while (sha.length() < 40) {
+            value = value * 6364136223846793005L + 1442695040888963407L;
+            sha.append(Long.toHexString(value >>> 4 & 0xffffffffL));
+        }
+        return sha.substring(0, 40);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.githubrepository.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+public final class GitHubStandIn implements AutoCloseable {
+    private final WireMockServer server;
+
+    private GitHubStandIn(WireMockServer server) {
+        this.server = server;
+    }
+
+    public static GitHubStandIn start(List<String> usernames, int repositoriesPerUser, int branchesPerRepository,
+                                      int pageSize, Duration latency) {
+        WireMockServer server = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(200)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(50)
+                .disableRequestJournal());
+        server.start();
+
+        int lastPage = Math.max(1, (repositoriesPerUser + pageSize - 1) / pageSize);
+        for (String username : usernames) {
+            for (int page = 1; page <= lastPage; page++) {
+                int firstIndex = (page - 1) * pageSize;
+                int count = Math.min(pageSize, repositoriesPerUser - firstIndex);
+                server.stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                        .withQueryParam("page", equalTo(String.valueOf(page)))
+                        .willReturn(withLatency(okJson(GitHubPayloads.repositoriesPage(username, firstIndex, count)), latency)
+                                .withHeader("Link", "<" + server.baseUrl() + "/users/" + username + "/repos?per_page="
+                                        + pageSize + "&page=" + lastPage + ">; rel=\"last\"")));
+            }
+        }
+
+        server.stubFor(get(urlPathMatching("/repos/[^/]+/[^/]+/branches"))
+                .willReturn(withLatency(okJson(GitHubPayloads.branchesPage("standInUser", "repository", branchesPerRepository)),
+                        latency)));
+
+        return new GitHubStandIn(server);
+    }
+
+    public String baseUrl() {
+        return server.baseUrl();
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+    }
+
+    private static ResponseDefinitionBuilder withLatency(ResponseDefinitionBuilder response, Duration latency) {
+        if (latency.isZero()) {
+            return response;
+        }
+        return response.withLogNormalRandomDelay(latency.toMillis(), 0.25);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.githubrepository.benchmark;
+
+import com.example.githubrepository.codec.GitHubModelDecoder;
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Repository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonDecodingBenchmark {
+    private static final TypeReference<List<Repository>> REPOSITORY_LIST = new TypeReference<>() { };
+    private static final TypeReference<List<Branch>> BRANCH_LIST = new TypeReference<>() { };
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"30", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Jackson2JsonDecoder decoder;
+    private GitHubModelDecoder modelDecoder;
+    private byte[] repositoriesPage;
+    private byte[] branchesPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        decoder = new Jackson2JsonDecoder(objectMapper);
+        decoder.setMaxInMemorySize(-1);
+        modelDecoder = new GitHubModelDecoder(objectMapper.getFactory(), -1);
+        repositoriesPage = GitHubPayloads.repositoriesPage("benchmarkUser", 0, pageSize).getBytes(StandardCharsets.UTF_8);
+        branchesPage = GitHubPayloads.branchesPage("benchmarkUser", "repository-0", pageSize).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Repository> objectMapperRepositories() throws Exception {
+        return objectMapper.readValue(repositoriesPage, REPOSITORY_LIST);
+    }
+
+    @Benchmark
+    public List<Branch> objectMapperBranches() throws Exception {
+        return objectMapper.readValue(branchesPage, BRANCH_LIST);
+    }
+
+    @Benchmark
+    public List<Object> webClientDecoderRepositories() {
+        return decodeToList(decoder, repositoriesPage, Repository.class);
+    }
+
+    @Benchmark
+    public List<Object> webClientDecoderBranches() {
+        return decodeToList(decoder, branchesPage, Branch.class);
+    }
+
+    @Benchmark
+    public List<Object> modelDecoderRepositories() {
+        return decodeToList(modelDecoder, repositoriesPage, Repository.class);
+    }
+
+    @Benchmark
+    public List<Object> modelDecoderBranches() {
+        return decodeToList(modelDecoder, branchesPage, Branch.class);
+    }
+
+    private static List<Object> decodeToList(Decoder<Object> decoder, byte[] payload, Class<?> elementType) {
+        return decoder.decode(chunks(payload), ResolvableType.forClass(elementType), MediaType.APPLICATION_JSON,
+                        Collections.emptyMap())
+                .collectList()
+                .block();
+    }
+
+    private static Flux<DataBuffer> chunks(byte[] payload) {
+        return Flux.range(0, (payload.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .map(chunk -> {
+                    int offset = chunk * CHUNK_SIZE;
+                    int length = Math.min(CHUNK_SIZE, payload.length - offset);
+                    return DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(payload, offset, length));
+                });
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.githubrepository.benchmark;
+
+import com.example.githubrepository.GitHubRepositoryApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public final class LoadTestHarness {
+    private LoadTestHarness() { }
+
+    public static void main(String[] args) {
+        int users = Integer.getInteger("loadTest.users", 50);
+        int repositoriesPerUser = Integer.getInteger("loadTest.repositoriesPerUser", 200);
+        int branchesPerRepository = Integer.getInteger("loadTest.branchesPerRepository", 5);
+        int pageSize = Integer.getInteger("loadTest.pageSize", 100);
+        Duration latency = Duration.ofMillis(Long.getLong("loadTest.latencyMillis", 50));
+        int concurrency = Integer.getInteger("loadTest.concurrency", 16);
+        int requests = Integer.getInteger("loadTest.requests", 500);
+        int warmupRequests = Integer.getInteger("loadTest.warmupRequests", Math.max(1, requests / 10));
+        long maxP99Millis = Long.getLong("loadTest.maxP99Millis", -1);
+        boolean resultCache = Boolean.getBoolean("loadTest.resultCache");
+        boolean withinBudget;
+
+        List<String> usernames = IntStream.range(0, users).mapToObj(user -> "user-" + user).toList();
+
+        try (GitHubStandIn standIn = GitHubStandIn.start(usernames, repositoriesPerUser, branchesPerRepository, pageSize, latency);
+             ConfigurableApplicationContext application = new SpringApplicationBuilder(GitHubRepositoryApplication.class)
+                     .run("--server.port=0", "--github.api.base-url=" + standIn.baseUrl(),
+                             "--github.pagination.per-page=" + pageSize,
+                             "--github.cache.result.enabled=" + resultCache,
+                             "--github.cache.disk.enabled=false")) {
+
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            WebClient client = WebClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .build();
+
+            run(client, usernames, warmupRequests, concurrency);
+            Result result = run(client, usernames, requests, concurrency);
+
+            System.out.printf("users=%d repositoriesPerUser=%d branchesPerRepository=%d pageSize=%d latency=%dms concurrency=%d%n",
+                    users, repositoriesPerUser, branchesPerRepository, pageSize, latency.toMillis(), concurrency);
+            System.out.printf("requests=%d errors=%d throughput=%.1f req/s p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms%n",
+                    requests, result.errors(), result.throughput(), result.percentileMillis(0.50),
+                    result.percentileMillis(0.90), result.percentileMillis(0.99), result.percentileMillis(1.0));
+
+            withinBudget = maxP99Millis < 0 || result.percentileMillis(0.99) <= maxP99Millis;
+            if (!withinBudget) {
+                System.err.printf("p99 %.1fms exceeds the allowed %dms%n", result.percentileMillis(0.99), maxP99Millis);
+            }
+        }
+
+        System.exit(withinBudget ? 0 : 1);
+    }
+
+    private static Result run(WebClient client, List<String> usernames, int requests, int concurrency) {
+        long[] latencies = new long[requests];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+
+        Flux.range(0, requests)
+                .flatMap(i -> {
+                    long requestStart = System.nanoTime();
+                    return client.get()
+                            .uri("/api/github/users/{username}/repositories", usernames.get(i % usernames.size()))
+                            .retrieve()
+                            .toBodilessEntity()
+                            .doOnSuccess(response -> latencies[completed.getAndIncrement()] = System.nanoTime() - requestStart)
+                            .onErrorResume(error -> {
+                                errors.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, concurrency)
+                .blockLast();
+
+        long elapsed = System.nanoTime() - start;
+        long[] sorted = Arrays.copyOf(latencies, completed.get());
+        Arrays.sort(sorted);
+        return new Result(sorted, errors.get(), requests / (elapsed / 1_000_000_000.0));
+    }
+
+    private record Result(long[] sortedLatencies, int errors, double throughput) {
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = Math.max(0, (int) Math.ceil(percentile * sortedLatencies.length) - 1);
+            return sortedLatencies[index] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.githubrepository.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class StartupBenchmark {
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private StartupBenchmark() { }
+
+    public static void main(String[] args) throws Exception {
+        String java = System.getProperty("startup.java", "java");
+        String jar = System.getProperty("startup.jar");
+        List<String> jvmOptions = tokenize(System.getProperty("startup.jvmOptions", ""));
+        String profiles = System.getProperty("startup.profiles", "");
+        int runs = Integer.getInteger("startup.runs", 5);
+        int repositoriesPerUser = Integer.getInteger("startup.repositoriesPerUser", 20);
+        int branchesPerRepository = Integer.getInteger("startup.branchesPerRepository", 5);
+        Duration timeout = Duration.ofSeconds(Long.getLong("startup.timeoutSeconds", 60));
+        long maxMedianMillis = Long.getLong("startup.maxMedianMillis", -1);
+        if (jar == null) {
+            throw new IllegalArgumentException("startup.jar must point to the application jar");
+        }
+
+        long[] startupTimes = new long[runs];
+        try (GitHubStandIn standIn = GitHubStandIn.start(List.of("standInUser"), repositoriesPerUser, branchesPerRepository, 100,
+                Duration.ZERO)) {
+            for (int run = 0; run < runs; run++) {
+                startupTimes[run] = timeToFirstResponse(java, jar, jvmOptions, profiles, standIn.baseUrl(), timeout);
+                System.out.printf("run=%d timeToFirstResponse=%.1fms%n", run + 1, startupTimes[run] / 1_000_000.0);
+            }
+        }
+
+        Arrays.sort(startupTimes);
+        double medianMillis = startupTimes[(runs - 1) / 2] / 1_000_000.0;
+        System.out.printf("jvmOptions=%s profiles=%s runs=%d%n", jvmOptions, profiles.isEmpty() ? "default" : profiles, runs);
+        System.out.printf("timeToFirstResponse min=%.1fms median=%.1fms max=%.1fms%n",
+                startupTimes[0] / 1_000_000.0, medianMillis, startupTimes[runs - 1] / 1_000_000.0);
+
+        boolean withinBudget = maxMedianMillis < 0 || medianMillis <= maxMedianMillis;
+        if (!withinBudget) {
+            System.err.printf("median time to first response %.1fms exceeds the allowed %dms%n", medianMillis, maxMedianMillis);
+        }
+        System.exit(withinBudget ? 0 : 1);
+    }
+
+    private static long timeToFirstResponse(String java, String jar, List<String> jvmOptions, String profiles,
+                                            String gitHubBaseUrl, Duration timeout) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-jar", jar, "--server.port=" + port, "--github.api.base-url=" + gitHubBaseUrl,
+                "--github.cache.disk.enabled=false"));
+        if (!profiles.isEmpty()) {
+            command.add("--spring.profiles.active=" + profiles);
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/github/users/standInUser/repositories"))
+                .timeout(timeout)
+                .build();
+
+        long start = System.nanoTime();
+        Process application = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!application.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + application.exitValue()
+                            + " before answering, command: " + command);
+                }
+                if (isSuccessful(client, request)) {
+                    return System.nanoTime() - start;
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException("No successful response within " + timeout);
+        } finally {
+            application.destroy();
+            application.waitFor();
+        }
+    }
+
+    private static boolean isSuccessful(HttpClient client, HttpRequest request) throws InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> tokenize(String options) {
+        return Arrays.stream(options.trim().split("\\s+"))
+                .filter(option -> !option.isEmpty())
+                .toList();
+    }
+}
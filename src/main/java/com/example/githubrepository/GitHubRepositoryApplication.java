@@ -1,9 +1,14 @@
 package com.example.githubrepository;
 
+import com.example.githubrepository.config.GitHubRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(GitHubRuntimeHints.class)
 public class GitHubRepositoryApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,54 @@
+package com.example.githubrepository.adapter;
+
+import com.example.githubrepository.exception.*;
+import com.example.githubrepository.ratelimit.RateLimitHeaders;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.concurrent.TimeoutException;
+
+final class GitHubErrorMapper {
+    private GitHubErrorMapper() { }
+
+    static Throwable toDomainException(WebClientResponseException e) {
+        if (RateLimitHeaders.isRateLimited(e.getStatusCode(), e.getHeaders())) {
+            return toRateLimitExceededException(e);
+        }
+
+        if (e.getStatusCode().is4xxClientError()) {
+            return switch (e) {
+                case WebClientResponseException.NotFound notFound -> UserNotFoundException.USER_NOT_FOUND;
+                case WebClientResponseException.Forbidden forbidden -> new AccessDeniedException("Access denied");
+                case WebClientResponseException.BadRequest badRequest -> new BadRequestException("Bad request");
+
+                default -> new ClientErrorException("Client error: " + e.getMessage());
+            };
+
+        } else if (e.getStatusCode().is5xxServerError()) {
+            if (e instanceof WebClientResponseException.ServiceUnavailable) {
+                return new ServiceUnavailableException("Service unavailable");
+            }
+
+            return new ServerErrorException("Server error: " + e.getMessage());
+        }
+        return e;
+    }
+
+    static Throwable toBranchRetrievalException(WebClientResponseException e, String repositoryName) {
+        if (RateLimitHeaders.isRateLimited(e.getStatusCode(), e.getHeaders())) {
+            return toRateLimitExceededException(e);
+        }
+        if (e instanceof WebClientResponseException.NotFound) {
+            return new BranchNotFoundException("Failed to retrieve branches for repository: " + repositoryName);
+        }
+        return new BranchRetrievalException("Failed to retrieve branches for repository: " + repositoryName);
+    }
+
+    static boolean isUnavailable(Throwable e) {
+        return e instanceof TimeoutException || e instanceof WebClientRequestException;
+    }
+
+    private static RateLimitExceededException toRateLimitExceededException(WebClientResponseException e) {
+        return new RateLimitExceededException("Rate limit exceeded", RateLimitHeaders.retryAfter(e.getHeaders()));
+    }
+}
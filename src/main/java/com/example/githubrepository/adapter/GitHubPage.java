@@ -0,0 +1,33 @@
+package com.example.githubrepository.adapter;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+record GitHubPage<T>(
+        List<T> items,
+        int lastPage
+) {
+    private static final Pattern LAST_PAGE_LINK = Pattern.compile("<([^>]*)>\\s*;\\s*rel=\"last\"");
+    private static final Pattern PAGE_PARAMETER = Pattern.compile("[?&]page=(\\d+)");
+
+    static <T> GitHubPage<T> of(List<T> items, HttpHeaders headers) {
+        return new GitHubPage<>(items, parseLastPage(headers.getFirst("Link")));
+    }
+
+    static int parseLastPage(String linkHeader) {
+        if (linkHeader == null) {
+            return 1;
+        }
+
+        Matcher lastLink = LAST_PAGE_LINK.matcher(linkHeader);
+        if (!lastLink.find()) {
+            return 1;
+        }
+
+        Matcher page = PAGE_PARAMETER.matcher(lastLink.group(1));
+        return page.find() ? Integer.parseInt(page.group(1)) : 1;
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.githubrepository.adapter;
+
+import com.example.githubrepository.codec.GitHubCodecs;
+import com.example.githubrepository.exception.AccessDeniedException;
+import com.example.githubrepository.exception.BranchNotFoundException;
+import com.example.githubrepository.exception.BranchRetrievalException;
+import com.example.githubrepository.exception.RateLimitExceededException;
+import com.example.githubrepository.exception.ServerErrorException;
+import com.example.githubrepository.exception.ServiceUnavailableException;
+import com.example.githubrepository.exception.UserNotFoundException;
+import com.example.githubrepository.metrics.GitHubMetrics;
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Commit;
+import com.example.githubrepository.model.Owner;
+import com.example.githubrepository.model.Repository;
+import com.example.githubrepository.ratelimit.GitHubRateLimiter;
+import com.example.githubrepository.resilience.UpstreamResilience;
+import com.example.githubrepository.tracing.UpstreamTracer;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Component
+@ConditionalOnProperty(name = "github.api.mode", havingValue = "graphql")
+@RegisterReflectionForBinding({GraphQlGitHubRepositoryAdapter.GraphQlRequest.class, GraphQlGitHubRepositoryAdapter.GraphQlResponse.class,
+        GraphQlGitHubRepositoryAdapter.RepositoriesData.class, GraphQlGitHubRepositoryAdapter.RepositoryNode.class,
+        GraphQlGitHubRepositoryAdapter.BranchesData.class, GraphQlGitHubRepositoryAdapter.RefNode.class})
+public class GraphQlGitHubRepositoryAdapter implements GitHubRepositoryAdapter {
+    private static final String REPOSITORIES_QUERY = """
+            query($login: String!, $cursor: String, $pageSize: Int!, $withBranches: Boolean!, $branchPageSize: Int!) {
+              repositoryOwner(login: $login) {
+                repositories(first: $pageSize, after: $cursor, isFork: false, ownerAffiliations: OWNER) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes {
+                    name
+                    owner { login }
+                    isFork
+                    pushedAt
+                    updatedAt
+                    refs(refPrefix: "refs/heads/", first: $branchPageSize) @include(if: $withBranches) {
+                      pageInfo { hasNextPage endCursor }
+                      nodes { name target { oid } }
+                    }
+                  }
+                }
+              }
+            }
+            """;
+
+    private static final String BRANCHES_QUERY = """
+            query($owner: String!, $name: String!, $cursor: String, $branchPageSize: Int!) {
+              repository(owner: $owner, name: $name) {
+                refs(refPrefix: "refs/heads/", first: $branchPageSize, after: $cursor) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes { name target { oid } }
+                }
+              }
+            }
+            """;
+
+    private static final ParameterizedTypeReference<GraphQlResponse<RepositoriesData>> REPOSITORIES_RESPONSE =
+            new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<GraphQlResponse<BranchesData>> BRANCHES_RESPONSE =
+            new ParameterizedTypeReference<>() { };
+
+    private final WebClient webClient;
+    private final GitHubRateLimiter rateLimiter;
+    private final UpstreamResilience upstreamResilience;
+    private final String path;
+    private final int pageSize;
+    private final int branchPageSize;
+
+    public GraphQlGitHubRepositoryAdapter(WebClient webClient,
+                                          GitHubRateLimiter rateLimiter,
+                                          GitHubMetrics gitHubMetrics,
+                                          GitHubCodecs gitHubCodecs,
+                                          UpstreamResilience upstreamResilience,
+                                          UpstreamTracer upstreamTracer,
+                                          @Value("${github.graphql.path:/graphql}") String path,
+                                          @Value("${github.graphql.page-size:100}") int pageSize,
+                                          @Value("${github.graphql.branch-page-size:100}") int branchPageSize) {
+        this.webClient = webClient.mutate()
+                .codecs(gitHubCodecs)
+                .filter(rateLimiter)
+                .filter(gitHubMetrics)
+                .filter(upstreamTracer)
+                .build();
+        this.rateLimiter = rateLimiter;
+        this.upstreamResilience = upstreamResilience;
+        this.path = path;
+        this.pageSize = pageSize;
+        this.branchPageSize = branchPageSize;
+    }
+
+    @Override
+    public Flux<Repository> getUserRepositories(String username) {
+        return getUserRepositories(username, null);
+    }
+
+    @Override
+    public Flux<Repository> getUserRepositories(String username, Integer branchLimit) {
+        return getRepositoriesPage(username, null, branchLimit)
+                .expand(page -> page.pageInfo().hasNextPage()
+                        ? getRepositoriesPage(username, page.pageInfo().endCursor(), branchLimit)
+                        : Mono.empty())
+                .concatMapIterable(Connection::nodes)
+                .filter(node -> !node.isFork())
+                .concatMap(node -> node.refs() == null
+                        ? Mono.just(toRepository(node, null))
+                        : getRemainingBranches(node.owner().login(), node.name(), node.refs(), branchLimit)
+                                .map(branches -> toRepository(node, branches)))
+                .onErrorMap(WebClientResponseException.class, GitHubErrorMapper::toDomainException)
+                .onErrorMap(GitHubErrorMapper::isUnavailable, e -> new ServiceUnavailableException("Service unavailable"));
+    }
+
+    @Override
+    public Flux<Branch> getBranches(String username, String repositoryName) {
+        return getBranchesPage(username, repositoryName, null, branchPageSize)
+                .flatMap(refs -> getRemainingBranches(username, repositoryName, refs, null))
+                .flatMapIterable(Function.identity())
+                .onErrorMap(WebClientResponseException.class, e ->
+                        GitHubErrorMapper.toBranchRetrievalException(e, repositoryName)
+                )
+                .onErrorMap(GitHubErrorMapper::isUnavailable, e ->
+                        new BranchRetrievalException("Failed to retrieve branches for repository: " + repositoryName)
+                );
+    }
+
+    private Mono<Connection<RepositoryNode>> getRepositoriesPage(String username, String cursor, Integer branchLimit) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("login", username);
+        variables.put("cursor", cursor);
+        variables.put("pageSize", pageSize);
+        variables.put("withBranches", branchLimit == null || branchLimit > 0);
+        variables.put("branchPageSize", branchPageSize(branchLimit));
+
+        return query(UpstreamEndpoint.REPOSITORIES, REPOSITORIES_QUERY, variables, REPOSITORIES_RESPONSE)
+                .handle((response, sink) -> {
+                    if (response.hasError("RATE_LIMITED")) {
+                        sink.error(rateLimitExceeded());
+                    } else if (response.hasError("NOT_FOUND")) {
+                        sink.error(UserNotFoundException.USER_NOT_FOUND);
+                    } else if (response.hasError("FORBIDDEN")) {
+                        sink.error(new AccessDeniedException("Access denied"));
+                    } else if (response.hasErrors()) {
+                        sink.error(new ServerErrorException("Server error: " + response.errors().getFirst().message()));
+                    } else if (response.data() == null) {
+                        sink.error(new ServerErrorException("Server error: GraphQL response without data"));
+                    } else if (response.data().repositoryOwner() == null) {
+                        sink.error(UserNotFoundException.USER_NOT_FOUND);
+                    } else {
+                        sink.next(response.data().repositoryOwner().repositories());
+                    }
+                });
+    }
+
+    private Mono<Connection<RefNode>> getBranchesPage(String owner, String repositoryName, String cursor, int pageSize) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("owner", owner);
+        variables.put("name", repositoryName);
+        variables.put("cursor", cursor);
+        variables.put("branchPageSize", pageSize);
+
+        return query(UpstreamEndpoint.BRANCHES, BRANCHES_QUERY, variables, BRANCHES_RESPONSE)
+                .handle((response, sink) -> {
+                    if (response.hasError("RATE_LIMITED")) {
+                        sink.error(rateLimitExceeded());
+                    } else if (response.hasError("NOT_FOUND")) {
+                        sink.error(new BranchNotFoundException("Failed to retrieve branches for repository: " + repositoryName));
+                    } else if (response.data() == null || response.data().repository() == null
+                            || response.hasErrors()) {
+                        sink.error(new BranchRetrievalException("Failed to retrieve branches for repository: " + repositoryName));
+                    } else {
+                        sink.next(response.data().repository().refs());
+                    }
+                });
+    }
+
+    private Mono<List<Branch>> getRemainingBranches(String owner, String repositoryName, Connection<RefNode> firstPage,
+                                                    Integer branchLimit) {
+        int limit = branchLimit != null ? branchLimit : Integer.MAX_VALUE;
+        return Mono.defer(() -> {
+            int[] listed = new int[1];
+            return Mono.just(firstPage)
+                    .expand(page -> {
+                        listed[0] += page.nodes().size();
+                        return page.pageInfo().hasNextPage() && listed[0] < limit
+                                ? getBranchesPage(owner, repositoryName, page.pageInfo().endCursor(),
+                                        branchPageSize(limit - listed[0]))
+                                : Mono.empty();
+                    })
+                    .concatMapIterable(Connection::nodes)
+                    .take(limit)
+                    .map(ref -> new Branch(ref.name(), new Commit(ref.target().oid())))
+                    .collect(ArrayList::new, List::add);
+        });
+    }
+
+    private int branchPageSize(Integer branchLimit) {
+        return branchLimit != null && branchLimit > 0 ? Math.min(branchLimit, branchPageSize) : branchPageSize;
+    }
+
+    private static Repository toRepository(RepositoryNode node, List<Branch> branches) {
+        return new Repository(node.name(), node.owner(), branches, node.isFork(), node.pushedAt(), node.updatedAt());
+    }
+
+    private RateLimitExceededException rateLimitExceeded() {
+        Duration untilReset = Duration.between(Instant.now(), rateLimiter.resetAt());
+        return new RateLimitExceededException("Rate limit exceeded", untilReset.isNegative() ? Duration.ZERO : untilReset);
+    }
+
+    private <T> Mono<GraphQlResponse<T>> query(UpstreamEndpoint endpoint, String query, Map<String, Object> variables,
+                                               ParameterizedTypeReference<GraphQlResponse<T>> responseType) {
+        return upstreamResilience.decorate(endpoint.tag(), () -> webClient.post()
+                .uri(path)
+                .attribute(GitHubMetrics.ENDPOINT_ATTRIBUTE, endpoint.tag())
+                .attribute(UpstreamTracer.URI_TEMPLATE_ATTRIBUTE, path)
+                .bodyValue(new GraphQlRequest(query, variables))
+                .retrieve()
+                .bodyToMono(responseType));
+    }
+
+    record GraphQlRequest(String query, Map<String, Object> variables) { }
+
+    record GraphQlResponse<T>(T data, List<GraphQlError> errors) {
+        boolean hasError(String type) {
+            return errors != null && errors.stream().anyMatch(error -> type.equals(error.type()));
+        }
+
+        boolean hasErrors() {
+            return errors != null && !errors.isEmpty();
+        }
+    }
+
+    record GraphQlError(String type, String message) { }
+
+    record Connection<T>(PageInfo pageInfo, List<T> nodes) { }
+
+    record PageInfo(boolean hasNextPage, String endCursor) { }
+
+    record RepositoriesData(RepositoryOwnerNode repositoryOwner) { }
+
+    record RepositoryOwnerNode(Connection<RepositoryNode> repositories) { }
+
+    record RepositoryNode(String name, Owner owner, boolean isFork, Instant pushedAt, Instant updatedAt,
+                          Connection<RefNode> refs) { }
+
+    record BranchesData(RepositoryRefsNode repository) { }
+
+    record RepositoryRefsNode(Connection<RefNode> refs) { }
+
+    record RefNode(String name, RefTarget target) { }
+
+    record RefTarget(String oid) { }
+}
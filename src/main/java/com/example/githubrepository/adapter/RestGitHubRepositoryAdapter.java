@@ -0,0 +1,140 @@
+package com.example.githubrepository.adapter;
+
+import com.example.githubrepository.cache.ConditionalRequestCache;
+import com.example.githubrepository.cache.ConditionalRequestCache.CachedResponse;
+import com.example.githubrepository.codec.GitHubCodecs;
+import com.example.githubrepository.exception.BranchRetrievalException;
+import com.example.githubrepository.exception.ServiceUnavailableException;
+import com.example.githubrepository.metrics.GitHubMetrics;
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Repository;
+import com.example.githubrepository.ratelimit.GitHubRateLimiter;
+import com.example.githubrepository.resilience.UpstreamResilience;
+import com.example.githubrepository.tracing.UpstreamTracer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "github.api.mode", havingValue = "rest", matchIfMissing = true)
+public class RestGitHubRepositoryAdapter implements GitHubRepositoryAdapter {
+    private final WebClient webClient;
+    private final ConditionalRequestCache conditionalRequestCache;
+    private final UpstreamResilience upstreamResilience;
+    private final int perPage;
+    private final int pageParallelism;
+
+    public RestGitHubRepositoryAdapter(WebClient webClient,
+                                       GitHubRateLimiter rateLimiter,
+                                       GitHubMetrics gitHubMetrics,
+                                       GitHubCodecs gitHubCodecs,
+                                       ConditionalRequestCache conditionalRequestCache,
+                                       UpstreamResilience upstreamResilience,
+                                       UpstreamTracer upstreamTracer,
+                                       @Value("${github.pagination.per-page:100}") int perPage,
+                                       @Value("${github.pagination.parallelism:4}") int pageParallelism) {
+        this.webClient = webClient.mutate()
+                .codecs(gitHubCodecs)
+                .filter(rateLimiter)
+                .filter(gitHubMetrics)
+                .filter(upstreamTracer)
+                .build();
+        this.conditionalRequestCache = conditionalRequestCache;
+        this.upstreamResilience = upstreamResilience;
+        this.perPage = perPage;
+        this.pageParallelism = pageParallelism;
+    }
+
+    @Override
+    public Flux<Repository> getUserRepositories(String username) {
+        return getAllPages(UpstreamEndpoint.REPOSITORIES, Repository.class, "/users/{username}/repos", username)
+                .onErrorMap(WebClientResponseException.class, GitHubErrorMapper::toDomainException)
+                .onErrorMap(GitHubErrorMapper::isUnavailable, e -> new ServiceUnavailableException("Service unavailable"));
+    }
+
+    @Override
+    public Flux<Branch> getBranches(String username, String repositoryName) {
+        return getAllPages(UpstreamEndpoint.BRANCHES, Branch.class, "/repos/{username}/{repository}/branches", username, repositoryName)
+                .onErrorMap(WebClientResponseException.class, e ->
+                        GitHubErrorMapper.toBranchRetrievalException(e, repositoryName)
+                )
+                .onErrorMap(GitHubErrorMapper::isUnavailable, e ->
+                        new BranchRetrievalException("Failed to retrieve branches for repository: " + repositoryName)
+                );
+    }
+
+    private <T> Flux<T> getAllPages(UpstreamEndpoint endpoint, Class<T> type, String path, Object... uriVariables) {
+        return getPage(endpoint, type, 1, path, uriVariables)
+                .flatMapMany(firstPage -> Flux.fromIterable(firstPage.items())
+                        .concatWith(Flux.range(2, Math.max(0, firstPage.lastPage() - 1))
+                                .flatMapSequential(page -> getPage(endpoint, type, page, path, uriVariables), pageParallelism)
+                                .concatMapIterable(GitHubPage::items)));
+    }
+
+    private <T> Mono<GitHubPage<T>> getPage(UpstreamEndpoint endpoint, Class<T> type, int page, String path,
+                                            Object... uriVariables) {
+        String url = UriComponentsBuilder.fromPath(path)
+                .queryParam("per_page", perPage)
+                .queryParam("page", page)
+                .buildAndExpand(uriVariables)
+                .toUriString();
+
+        return upstreamResilience.decorate(endpoint.tag(), () -> conditionalRequestCache.get(url).flatMap(cached -> {
+            if (cached.isPresent()) {
+                conditionalRequestCache.recordRevalidation();
+            } else {
+                conditionalRequestCache.recordMiss();
+            }
+
+            return webClient.get()
+                    .uri(uriBuilder -> uriBuilder.path(path)
+                            .queryParam("per_page", perPage)
+                            .queryParam("page", page)
+                            .build(uriVariables))
+                    .attribute(GitHubMetrics.ENDPOINT_ATTRIBUTE, endpoint.tag())
+                    .attribute(UpstreamTracer.URI_TEMPLATE_ATTRIBUTE, path)
+                    .headers(headers -> cached.ifPresent(response -> addConditionalHeaders(headers, response)))
+                    .exchangeToMono(response -> {
+                        if (cached.isPresent() && response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                            conditionalRequestCache.recordHit();
+                            return Mono.just(toPage(cached.get()));
+                        }
+
+                        if (response.statusCode().is2xxSuccessful()) {
+                            return response.toEntityList(type)
+                                    .map(entity -> {
+                                        GitHubPage<T> gitHubPage = GitHubPage.of(entity.getBody(), entity.getHeaders());
+                                        conditionalRequestCache.put(url, entity.getHeaders().getETag(),
+                                                entity.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED),
+                                                gitHubPage.items(), gitHubPage.lastPage());
+                                        return gitHubPage;
+                                    });
+                        }
+
+                        return response.createError();
+                    });
+        }));
+    }
+
+    private void addConditionalHeaders(HttpHeaders headers, CachedResponse cached) {
+        if (cached.eTag() != null) {
+            headers.setIfNoneMatch(cached.eTag());
+        } else {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> GitHubPage<T> toPage(CachedResponse cached) {
+        return new GitHubPage<>((List<T>) cached.items(), cached.lastPage());
+    }
+}
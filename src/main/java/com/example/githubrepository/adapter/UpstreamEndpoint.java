@@ -0,0 +1,16 @@
+package com.example.githubrepository.adapter;
+
+public enum UpstreamEndpoint {
+    REPOSITORIES("repositories"),
+    BRANCHES("branches");
+
+    private final String tag;
+
+    UpstreamEndpoint(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.githubrepository.cache;
+
+import com.example.githubrepository.model.Branch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+@Component
+public class BranchSnapshotCache {
+    private final boolean enabled;
+    private final Map<String, BranchSnapshot> snapshots;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BranchSnapshotCache(@Value("${github.cache.branches.enabled:true}") boolean enabled,
+                               @Value("${github.cache.branches.max-entries:50000}") int maxEntries) {
+        this.enabled = enabled;
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BranchSnapshot> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Optional<List<Branch>> get(String owner, String repositoryName, Instant pushedAt) {
+        if (!enabled || pushedAt == null) {
+            return Optional.empty();
+        }
+
+        BranchSnapshot snapshot = getSnapshot(key(owner, repositoryName));
+        if (snapshot == null || !snapshot.pushedAt().equals(pushedAt)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(snapshot.branches());
+    }
+
+    public void put(String owner, String repositoryName, Instant pushedAt, List<Branch> branches) {
+        if (enabled && pushedAt != null) {
+            putSnapshot(key(owner, repositoryName), new BranchSnapshot(pushedAt, List.copyOf(branches)));
+        }
+    }
+
+    public boolean update(String owner, String repositoryName, Instant pushedAt, UnaryOperator<List<Branch>> patch) {
+        if (!enabled) {
+            return false;
+        }
+
+        String key = key(owner, repositoryName);
+        synchronized (this) {
+            BranchSnapshot snapshot = snapshots.get(key);
+            if (snapshot == null) {
+                return false;
+            }
+            List<Branch> patched = patch.apply(snapshot.branches());
+            if (patched == null) {
+                snapshots.remove(key);
+            } else {
+                snapshots.put(key, new BranchSnapshot(pushedAt != null ? pushedAt : snapshot.pushedAt(),
+                        List.copyOf(patched)));
+            }
+            return true;
+        }
+    }
+
+    public synchronized void invalidate(String owner, String repositoryName) {
+        snapshots.remove(key(owner, repositoryName));
+    }
+
+    public synchronized int size() {
+        return snapshots.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private synchronized BranchSnapshot getSnapshot(String key) {
+        return snapshots.get(key);
+    }
+
+    private synchronized void putSnapshot(String key, BranchSnapshot snapshot) {
+        snapshots.put(key, snapshot);
+    }
+
+    private static String key(String owner, String repositoryName) {
+        return (owner + "/" + repositoryName).toLowerCase(Locale.ROOT);
+    }
+
+    private record BranchSnapshot(Instant pushedAt, List<Branch> branches) { }
+}
@@ -0,0 +1,126 @@
+package com.example.githubrepository.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class ConditionalRequestCache {
+    private final Duration timeToLive;
+    private final Optional<DiskCacheStore> diskCacheStore;
+    private final Map<String, CachedResponse> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    public ConditionalRequestCache(@Value("${github.cache.conditional.max-entries:10000}") int maxEntries,
+                                   @Value("${github.cache.conditional.time-to-live:1h}") Duration timeToLive,
+                                   Optional<DiskCacheStore> diskCacheStore) {
+        this.timeToLive = timeToLive;
+        this.diskCacheStore = diskCacheStore;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Mono<Optional<CachedResponse>> get(String url) {
+        return Mono.defer(() -> {
+            Optional<CachedResponse> cached = getFromMemory(url);
+            if (cached.isPresent() || diskCacheStore.isEmpty() || !diskCacheStore.get().contains(url)) {
+                return Mono.just(cached);
+            }
+
+            return Mono.fromCallable(() -> {
+                        Optional<CachedResponse> stored = diskCacheStore.get().get(url);
+                        stored.ifPresent(response -> putInMemory(url, response));
+                        return stored;
+                    })
+                    .subscribeOn(Schedulers.boundedElastic());
+        });
+    }
+
+    public void put(String url, String eTag, String lastModified, List<?> items, int lastPage) {
+        if (eTag == null && lastModified == null) {
+            invalidate(url);
+            return;
+        }
+
+        CachedResponse response = new CachedResponse(eTag, lastModified, List.copyOf(items), lastPage, Instant.now());
+        putInMemory(url, response);
+        diskCacheStore.ifPresent(store -> store.put(url, response));
+    }
+
+    public void invalidate(String url) {
+        boolean cached;
+        synchronized (this) {
+            cached = entries.remove(url) != null;
+        }
+        diskCacheStore.filter(store -> cached || store.contains(url))
+                .ifPresent(store -> store.remove(url));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordRevalidation() {
+        revalidations.increment();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long revalidationCount() {
+        return revalidations.sum();
+    }
+
+    private synchronized Optional<CachedResponse> getFromMemory(String url) {
+        CachedResponse cached = entries.get(url);
+        if (cached == null) {
+            return Optional.empty();
+        }
+
+        if (cached.storedAt().plus(timeToLive).isBefore(Instant.now())) {
+            entries.remove(url);
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    private synchronized void putInMemory(String url, CachedResponse response) {
+        entries.put(url, response);
+    }
+
+    public record CachedResponse(
+            String eTag,
+            String lastModified,
+            List<?> items,
+            int lastPage,
+            Instant storedAt
+    ) { }
+}
@@ -0,0 +1,552 @@
+package com.example.githubrepository.cache;
+
+import com.example.githubrepository.cache.ConditionalRequestCache.CachedResponse;
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Commit;
+import com.example.githubrepository.model.Owner;
+import com.example.githubrepository.model.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+@Component
+@ConditionalOnProperty(name = "github.cache.disk.enabled", havingValue = "true")
+public class DiskCacheStore implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(DiskCacheStore.class);
+    private static final int MAGIC = 0x47484331;
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int VERSION = 2;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final byte EMPTY = 0;
+    private static final byte REPOSITORIES = 1;
+    private static final byte BRANCHES = 2;
+    private static final long MIN_COMPACTION_SIZE = DataSize.ofMegabytes(1).toBytes();
+
+    private final Path file;
+    private final long maxSize;
+    private final Duration timeToLive;
+    private final ThreadPoolExecutor writer;
+    private final LongAdder droppedWrites = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+    private final Object submission = new Object();
+    private final Map<String, PendingRemoval> removals = new HashMap<>();
+
+    private FileChannel channel;
+    private Map<String, IndexEntry> index = new HashMap<>();
+    private long end;
+    private long liveBytes;
+    private long sequence;
+    private volatile boolean loaded;
+
+    public DiskCacheStore(@Value("${github.cache.disk.directory:cache}") Path directory,
+                          @Value("${github.cache.disk.max-size:256MB}") DataSize maxSize,
+                          @Value("${github.cache.conditional.time-to-live:1h}") Duration timeToLive,
+                          @Value("${github.cache.disk.write-queue-size:10000}") int writeQueueSize) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve("conditional-requests.bin");
+        this.maxSize = maxSize.toBytes();
+        this.timeToLive = timeToLive;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(writeQueueSize), runnable -> {
+            Thread thread = new Thread(runnable, "github-disk-cache");
+            thread.setDaemon(true);
+            return thread;
+        }, this::rejected);
+        this.writer.execute(this::load);
+    }
+
+    public Optional<CachedResponse> get(String url) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        return read(url);
+    }
+
+    public void put(String url, CachedResponse response) {
+        byte itemKind = itemKind(response.items());
+        if (itemKind < 0) {
+            return;
+        }
+        synchronized (submission) {
+            long putSequence = ++sequence;
+            writer.execute(() -> {
+                persistRemovals(putSequence);
+                if (!isRemovedAfter(url, putSequence)) {
+                    write(url, PUT, response.storedAt(), putSequence, () -> encode(response, itemKind));
+                }
+            });
+        }
+    }
+
+    public void remove(String url) {
+        tombstone(url, null);
+    }
+
+    public synchronized boolean contains(String url) {
+        return index.containsKey(url);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized int entryCount() {
+        return index.size();
+    }
+
+    public synchronized long sizeInBytes() {
+        return end;
+    }
+
+    public long droppedWriteCount() {
+        return droppedWrites.sum();
+    }
+
+    public long failedWriteCount() {
+        return failedWrites.sum();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+        persistRemovals(Long.MAX_VALUE);
+        synchronized (this) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    private Optional<CachedResponse> read(String url) {
+        IndexEntry entry;
+        FileChannel source;
+        synchronized (this) {
+            entry = index.get(url);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            source = channel;
+        }
+        if (isExpired(entry.storedAt())) {
+            tombstone(url, entry);
+            return Optional.empty();
+        }
+
+        try {
+            ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + entry.length());
+            readFully(source, record, entry.offset());
+            return Optional.of(decode(record.flip(), entry.storedAt()));
+        } catch (ClosedChannelException e) {
+            return source != currentChannel() ? read(url) : Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            tombstone(url, entry);
+            return Optional.empty();
+        }
+    }
+
+    private void tombstone(String url, IndexEntry expected) {
+        synchronized (submission) {
+            long removalSequence;
+            synchronized (this) {
+                IndexEntry entry = index.get(url);
+                if (expected != null && !expected.equals(entry)) {
+                    return;
+                }
+                if (entry != null) {
+                    drop(url, entry);
+                }
+                removalSequence = ++sequence;
+                removals.put(url, new PendingRemoval(removalSequence, Instant.now(), false));
+            }
+            writer.execute(new Removal(() -> persistRemovals(removalSequence)));
+        }
+    }
+
+    private synchronized FileChannel currentChannel() {
+        return channel;
+    }
+
+    private void load() {
+        try {
+            synchronized (this) {
+                if (channel.size() < HEADER_SIZE || !hasValidHeader()) {
+                    channel.truncate(0);
+                    writeHeader(channel);
+                    end = HEADER_SIZE;
+                } else {
+                    scan();
+                }
+                removals.keySet().forEach(url -> {
+                    IndexEntry entry = index.get(url);
+                    if (entry != null) {
+                        drop(url, entry);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            log.warn("Failed to load disk cache file {}", file, e);
+        } finally {
+            loaded = true;
+        }
+    }
+
+    private boolean hasValidHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        header.flip();
+        return header.getInt() == MAGIC && header.getInt() == VERSION;
+    }
+
+    private void scan() throws IOException {
+        long size = channel.size();
+        long position = HEADER_SIZE;
+        DataInputStream input = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel.position(HEADER_SIZE)), 64 * 1024));
+
+        while (position + Integer.BYTES <= size) {
+            int length = input.readInt();
+            if (length < minimumRecordLength() || position + Integer.BYTES + length > size) {
+                break;
+            }
+
+            byte type = input.readByte();
+            Instant storedAt = Instant.ofEpochMilli(input.readLong());
+            int keyLength = input.readInt();
+            if (keyLength < 0 || keyLength > length - minimumRecordLength()) {
+                break;
+            }
+            String url = new String(input.readNBytes(keyLength), StandardCharsets.UTF_8);
+            input.skipNBytes(length - Byte.BYTES - Long.BYTES - Integer.BYTES - keyLength);
+
+            IndexEntry previous = index.remove(url);
+            if (previous != null) {
+                liveBytes -= previous.recordSize();
+            }
+            IndexEntry entry = new IndexEntry(position, length, storedAt);
+            if (type == PUT && !isExpired(storedAt)) {
+                index.put(url, entry);
+                liveBytes += entry.recordSize();
+            }
+            position += entry.recordSize();
+        }
+
+        end = position;
+        channel.truncate(end);
+    }
+
+    private boolean write(String url, byte type, Instant storedAt, long writeSequence, Supplier<byte[]> payload) {
+        try {
+            append(url, type, storedAt, writeSequence, payload.get());
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            failedWrites.increment();
+            log.warn("Failed to write disk cache record for {}", url, e);
+            return false;
+        }
+    }
+
+    private void persistRemovals(long writeSequence) {
+        Map<String, PendingRemoval> pending = new HashMap<>();
+        synchronized (this) {
+            removals.forEach((url, removal) -> {
+                if (!removal.persisted()) {
+                    pending.put(url, removal);
+                }
+            });
+        }
+
+        pending.forEach((url, removal) -> {
+            if (write(url, REMOVE, removal.removedAt(), removal.sequence(), () -> new byte[0])) {
+                synchronized (this) {
+                    removals.replace(url, removal, removal.asPersisted());
+                }
+            }
+        });
+
+        synchronized (this) {
+            removals.values().removeIf(removal -> removal.persisted() && removal.sequence() < writeSequence);
+        }
+    }
+
+    private synchronized boolean isRemovedAfter(String url, long writeSequence) {
+        PendingRemoval removal = removals.get(url);
+        return removal != null && removal.sequence() > writeSequence;
+    }
+
+    private void rejected(Runnable task, ThreadPoolExecutor executor) {
+        if (!(task instanceof Removal)) {
+            droppedWrites.increment();
+        }
+    }
+
+    private void append(String url, byte type, Instant storedAt, long writeSequence, byte[] payload) throws IOException {
+        byte[] key = url.getBytes(StandardCharsets.UTF_8);
+        int length = Byte.BYTES + Long.BYTES + Integer.BYTES + key.length + payload.length + Integer.BYTES;
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length)
+                .putInt(length)
+                .put(type)
+                .putLong(storedAt.toEpochMilli())
+                .putInt(key.length)
+                .put(key)
+                .put(payload);
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), Integer.BYTES, length - Integer.BYTES);
+        record.putInt((int) crc.getValue()).flip();
+
+        synchronized (this) {
+            writeFully(channel, record, end);
+            IndexEntry previous = index.remove(url);
+            if (previous != null) {
+                liveBytes -= previous.recordSize();
+            }
+            if (type == PUT && !isRemovedAfter(url, writeSequence)) {
+                IndexEntry entry = new IndexEntry(end, length, storedAt);
+                index.put(url, entry);
+                liveBytes += entry.recordSize();
+            }
+            end += Integer.BYTES + length;
+        }
+        if (needsCompaction()) {
+            compact();
+        }
+    }
+
+    private synchronized boolean needsCompaction() {
+        return end > maxSize || (end > MIN_COMPACTION_SIZE && end - HEADER_SIZE > 2 * liveBytes);
+    }
+
+    private void compact() throws IOException {
+        List<Map.Entry<String, IndexEntry>> live;
+        FileChannel source;
+        synchronized (this) {
+            live = new ArrayList<>(index.entrySet());
+            source = channel;
+        }
+        live.removeIf(entry -> isExpired(entry.getValue().storedAt()));
+        live.sort(Comparator.comparingLong((Map.Entry<String, IndexEntry> entry) -> entry.getValue().offset()).reversed());
+
+        Path compactedFile = file.resolveSibling(file.getFileName() + ".compact");
+        FileChannel target = FileChannel.open(compactedFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Map<String, IndexEntry> compacted = new HashMap<>();
+        Map<String, IndexEntry> copiedFrom = new HashMap<>();
+        long budget = maxSize * 3 / 4;
+        long position = writeHeader(target);
+        target.position(position);
+
+        for (Map.Entry<String, IndexEntry> entry : live) {
+            IndexEntry record = entry.getValue();
+            if (position + record.recordSize() > budget) {
+                break;
+            }
+            long copied = 0;
+            while (copied < record.recordSize()) {
+                copied += source.transferTo(record.offset() + copied, record.recordSize() - copied, target);
+            }
+            compacted.put(entry.getKey(), new IndexEntry(position, record.length(), record.storedAt()));
+            copiedFrom.put(entry.getKey(), record);
+            position += record.recordSize();
+        }
+        target.force(false);
+
+        synchronized (this) {
+            Files.move(compactedFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel.close();
+            channel = target;
+            copiedFrom.forEach((url, record) -> {
+                if (!record.equals(index.get(url))) {
+                    compacted.remove(url);
+                }
+            });
+            index = compacted;
+            end = position;
+            liveBytes = compacted.values().stream().mapToLong(IndexEntry::recordSize).sum();
+        }
+    }
+
+    private void drop(String url, IndexEntry entry) {
+        if (index.remove(url, entry)) {
+            liveBytes -= entry.recordSize();
+        }
+    }
+
+    private boolean isExpired(Instant storedAt) {
+        return storedAt.plus(timeToLive).isBefore(Instant.now());
+    }
+
+    private static byte itemKind(List<?> items) {
+        if (items.isEmpty()) {
+            return EMPTY;
+        }
+        if (items.stream().allMatch(Repository.class::isInstance)) {
+            return REPOSITORIES;
+        }
+        if (items.stream().allMatch(Branch.class::isInstance)) {
+            return BRANCHES;
+        }
+        return -1;
+    }
+
+    private static byte[] encode(CachedResponse response, byte itemKind) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream output = new DataOutputStream(bytes);
+            writeString(output, response.eTag());
+            writeString(output, response.lastModified());
+            output.writeInt(response.lastPage());
+            output.writeByte(itemKind);
+            output.writeInt(response.items().size());
+            for (Object item : response.items()) {
+                if (item instanceof Repository repository) {
+                    writeString(output, repository.name());
+                    writeString(output, repository.owner() != null ? repository.owner().login() : null);
+                    output.writeBoolean(repository.fork());
+                    writeString(output, repository.pushedAt() != null ? repository.pushedAt().toString() : null);
+                    writeString(output, repository.updatedAt() != null ? repository.updatedAt().toString() : null);
+                } else if (item instanceof Branch branch) {
+                    writeString(output, branch.name());
+                    writeString(output, branch.commit() != null ? branch.commit().sha() : null);
+                }
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static CachedResponse decode(ByteBuffer record, Instant storedAt) {
+        int length = record.getInt();
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), Integer.BYTES, length - Integer.BYTES);
+        if (record.getInt(Integer.BYTES + length - Integer.BYTES) != (int) crc.getValue()) {
+            throw new IllegalStateException("Corrupted disk cache record");
+        }
+
+        record.position(record.position() + Byte.BYTES + Long.BYTES);
+        readString(record);
+        String eTag = readString(record);
+        String lastModified = readString(record);
+        int lastPage = record.getInt();
+        byte itemKind = record.get();
+        int count = record.getInt();
+
+        List<Object> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (itemKind == REPOSITORIES) {
+                String name = readString(record);
+                String login = readString(record);
+                boolean fork = record.get() != 0;
+                String pushedAt = readString(record);
+                String updatedAt = readString(record);
+                items.add(new Repository(name, login != null ? new Owner(login) : null, null, fork,
+                        pushedAt != null ? Instant.parse(pushedAt) : null,
+                        updatedAt != null ? Instant.parse(updatedAt) : null));
+            } else {
+                String name = readString(record);
+                String sha = readString(record);
+                items.add(new Branch(name, sha != null ? new Commit(sha) : null));
+            }
+        }
+        return new CachedResponse(eTag, lastModified, List.copyOf(items), lastPage, storedAt);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static int minimumRecordLength() {
+        return Byte.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    }
+
+    private static long writeHeader(FileChannel target) throws IOException {
+        writeFully(target, ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip(), 0);
+        return HEADER_SIZE;
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += target.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = source.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            position += read;
+        }
+    }
+
+    private record Removal(Runnable write) implements Runnable {
+        @Override
+        public void run() {
+            write.run();
+        }
+    }
+
+    private record PendingRemoval(long sequence, Instant removedAt, boolean persisted) {
+        PendingRemoval asPersisted() {
+            return new PendingRemoval(sequence, removedAt, true);
+        }
+    }
+
+    private record IndexEntry(long offset, int length, Instant storedAt) {
+        long recordSize() {
+            return Integer.BYTES + length;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.githubrepository.cache;
+
+import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class EncodedResponseCache {
+    private final boolean enabled;
+    private final long gzipMinSize;
+    private final ObjectMapper objectMapper;
+    private final Map<String, EncodedResponse> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    public EncodedResponseCache(@Value("${github.cache.encoded.enabled:true}") boolean enabled,
+                                @Value("${github.cache.encoded.max-entries:10000}") int maxEntries,
+                                @Value("${github.cache.encoded.gzip-min-size:1KB}") DataSize gzipMinSize,
+                                ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.gzipMinSize = gzipMinSize.toBytes();
+        this.objectMapper = objectMapper;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EncodedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public EncodedResponse get(String username, RepositoryDtoArray repositories) {
+        if (!enabled || username == null) {
+            return encode(repositories);
+        }
+
+        String key = username.toLowerCase(Locale.ROOT);
+        EncodedResponse cached = getEntry(key);
+        if (cached != null && cached.source() == repositories) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        EncodedResponse encoded = encode(repositories);
+        putEntry(key, encoded);
+        return encoded;
+    }
+
+    public EncodedResponse encode(RepositoryDtoArray repositories) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(repositories);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String hash = hash(body);
+        byte[] gzipBody = body.length >= gzipMinSize ? gzip(body) : null;
+        return new EncodedResponse(repositories, body, "\"" + hash + "\"",
+                gzipBody != null && gzipBody.length < body.length ? gzipBody : null,
+                "\"" + hash + "-gzip\"");
+    }
+
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long notModifiedCount() {
+        return notModified.sum();
+    }
+
+    private synchronized EncodedResponse getEntry(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void putEntry(String key, EncodedResponse encoded) {
+        entries.put(key, encoded);
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    public record EncodedResponse(
+            RepositoryDtoArray source,
+            byte[] body,
+            String eTag,
+            byte[] gzipBody,
+            String gzipETag
+    ) {
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(eTag) || (gzipBody != null && tag.equals(gzipETag))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.githubrepository.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class NegativeCache {
+    private final boolean enabled;
+    private final Duration timeToLive;
+    private final Map<String, Instant> entries;
+    private final LongAdder hits = new LongAdder();
+
+    public NegativeCache(@Value("${github.cache.negative.enabled:true}") boolean enabled,
+                         @Value("${github.cache.negative.max-entries:10000}") int maxEntries,
+                         @Value("${github.cache.negative.time-to-live:1m}") Duration timeToLive) {
+        this.enabled = enabled;
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Instant> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public boolean isMissingUser(String username) {
+        return contains("user:" + username.toLowerCase(Locale.ROOT));
+    }
+
+    public void recordMissingUser(String username) {
+        put("user:" + username.toLowerCase(Locale.ROOT));
+    }
+
+    public synchronized void forgetUser(String username) {
+        entries.remove("user:" + username.toLowerCase(Locale.ROOT));
+    }
+
+    public boolean isMissingRepository(String owner, String repositoryName) {
+        return contains(("repository:" + owner + "/" + repositoryName).toLowerCase(Locale.ROOT));
+    }
+
+    public void recordMissingRepository(String owner, String repositoryName) {
+        put(("repository:" + owner + "/" + repositoryName).toLowerCase(Locale.ROOT));
+    }
+
+    public synchronized void forgetRepository(String owner, String repositoryName) {
+        entries.remove(("repository:" + owner + "/" + repositoryName).toLowerCase(Locale.ROOT));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    private boolean contains(String key) {
+        if (!enabled) {
+            return false;
+        }
+
+        synchronized (this) {
+            Instant expiresAt = entries.get(key);
+            if (expiresAt == null) {
+                return false;
+            }
+            if (expiresAt.isBefore(Instant.now())) {
+                entries.remove(key);
+                return false;
+            }
+        }
+        hits.increment();
+        return true;
+    }
+
+    private void put(String key) {
+        if (enabled) {
+            synchronized (this) {
+                entries.put(key, Instant.now().plus(timeToLive));
+            }
+        }
+    }
+}
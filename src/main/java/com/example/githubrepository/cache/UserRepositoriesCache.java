@@ -0,0 +1,164 @@
+package com.example.githubrepository.cache;
+
+import com.example.githubrepository.dto.RepositoryDtoArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+@Component
+public class UserRepositoriesCache {
+    private final boolean enabled;
+    private final Duration timeToLive;
+    private final Duration staleWindow;
+    private final FrequencySketch frequencySketch;
+    private final Map<String, CachedRepositories> entries;
+    private final LongAdder freshHits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UserRepositoriesCache(@Value("${github.cache.result.enabled:true}") boolean enabled,
+                                 @Value("${github.cache.result.max-entries:10000}") int maxEntries,
+                                 @Value("${github.cache.result.time-to-live:5m}") Duration timeToLive,
+                                 @Value("${github.cache.result.stale-window:30m}") Duration staleWindow) {
+        this.enabled = enabled;
+        this.timeToLive = timeToLive;
+        this.staleWindow = staleWindow;
+        this.frequencySketch = new FrequencySketch(maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedRepositories> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<CachedRepositories> get(String username) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        String key = key(username);
+        frequencySketch.increment(key);
+        Optional<CachedRepositories> cached = getEntry(key);
+        if (cached.isEmpty()) {
+            misses.increment();
+        } else if (isStale(cached.get())) {
+            staleHits.increment();
+        } else {
+            freshHits.increment();
+        }
+        return cached;
+    }
+
+    public void put(String username, RepositoryDtoArray repositories) {
+        if (enabled) {
+            putEntry(key(username), new CachedRepositories(username, repositories, Instant.now()));
+        }
+    }
+
+    public boolean update(String username, UnaryOperator<RepositoryDtoArray> patch) {
+        if (!enabled) {
+            return false;
+        }
+
+        String key = key(username);
+        synchronized (this) {
+            CachedRepositories cached = entries.get(key);
+            if (cached == null) {
+                return false;
+            }
+            RepositoryDtoArray patched = patch.apply(cached.repositories());
+            if (patched == null) {
+                entries.remove(key);
+            } else {
+                entries.put(key, new CachedRepositories(cached.username(), patched, cached.storedAt()));
+            }
+            return true;
+        }
+    }
+
+    public synchronized void invalidate(String username) {
+        entries.remove(key(username));
+    }
+
+    public boolean isStale(CachedRepositories cached) {
+        return cached.storedAt().plus(timeToLive).isBefore(Instant.now());
+    }
+
+    public boolean expiresWithin(CachedRepositories cached, Duration horizon) {
+        return cached.storedAt().plus(timeToLive).isBefore(Instant.now().plus(horizon));
+    }
+
+    public List<CachedRepositories> hottest(int limit) {
+        if (!enabled || limit <= 0) {
+            return List.of();
+        }
+
+        List<CachedRepositories> candidates;
+        synchronized (this) {
+            candidates = List.copyOf(entries.values());
+        }
+        return candidates.stream()
+                .sorted(Comparator.comparingInt(
+                        (CachedRepositories cached) -> frequencySketch.frequency(key(cached.username()))).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long freshHitCount() {
+        return freshHits.sum();
+    }
+
+    public long staleHitCount() {
+        return staleHits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private synchronized Optional<CachedRepositories> getEntry(String key) {
+        CachedRepositories cached = entries.get(key);
+        if (cached == null) {
+            return Optional.empty();
+        }
+
+        if (cached.storedAt().plus(timeToLive).plus(staleWindow).isBefore(Instant.now())) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    private synchronized void putEntry(String key, CachedRepositories cached) {
+        entries.put(key, cached);
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    public record CachedRepositories(
+            String username,
+            RepositoryDtoArray repositories,
+            Instant storedAt
+    ) { }
+}
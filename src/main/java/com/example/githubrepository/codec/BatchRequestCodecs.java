@@ -0,0 +1,27 @@
+package com.example.githubrepository.codec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BatchRequestCodecs implements CodecCustomizer {
+    private static final int DEFAULT_MAX_IN_MEMORY_SIZE = 256 * 1024;
+    private static final int MAX_BYTES_PER_USERNAME = 64;
+
+    private final int maxInMemorySize;
+
+    public BatchRequestCodecs(@Value("${github.batch.max-usernames:50000}") int maxUsernames) {
+        this.maxInMemorySize = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(DEFAULT_MAX_IN_MEMORY_SIZE, (long) maxUsernames * MAX_BYTES_PER_USERNAME));
+    }
+
+    @Override
+    public void customize(CodecConfigurer configurer) {
+        if (configurer instanceof ServerCodecConfigurer) {
+            configurer.defaultCodecs().maxInMemorySize(maxInMemorySize);
+        }
+    }
+}
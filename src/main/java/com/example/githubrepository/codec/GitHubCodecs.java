@@ -0,0 +1,25 @@
+package com.example.githubrepository.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ClientCodecConfigurer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.function.Consumer;
+
+@Component
+public class GitHubCodecs implements Consumer<ClientCodecConfigurer> {
+    private final GitHubModelDecoder modelDecoder;
+
+    public GitHubCodecs(ObjectMapper objectMapper,
+                        @Value("${github.codec.max-in-memory-size:16MB}") DataSize maxInMemorySize) {
+        this.modelDecoder = new GitHubModelDecoder(objectMapper.getFactory(), (int) maxInMemorySize.toBytes());
+    }
+
+    @Override
+    public void accept(ClientCodecConfigurer configurer) {
+        configurer.defaultCodecs().maxInMemorySize(modelDecoder.getMaxInMemorySize());
+        configurer.customCodecs().register(modelDecoder);
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.githubrepository.codec;
+
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Commit;
+import com.example.githubrepository.model.Owner;
+import com.example.githubrepository.model.Repository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class GitHubModelDecoder implements Decoder<Object> {
+    private static final List<MimeType> MIME_TYPES = List.of(
+            MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+
+    private final JsonFactory jsonFactory;
+    private final int maxInMemorySize;
+
+    public GitHubModelDecoder(JsonFactory jsonFactory, int maxInMemorySize) {
+        this.jsonFactory = jsonFactory;
+        this.maxInMemorySize = maxInMemorySize;
+    }
+
+    public int getMaxInMemorySize() {
+        return maxInMemorySize;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        return Model.of(elementType.toClass()) != null && supportsMimeType(mimeType);
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType, MimeType mimeType,
+                               Map<String, Object> hints) {
+        Model model = Model.of(elementType.toClass());
+        return Flux.using(
+                () -> new ElementReader(model, jsonFactory.createNonBlockingByteBufferParser(), maxInMemorySize),
+                reader -> Flux.from(inputStream)
+                        .concatMapIterable(reader::read)
+                        .concatWith(Flux.defer(() -> Flux.fromIterable(reader.endOfInput()))),
+                ElementReader::close);
+    }
+
+    @Override
+    public Mono<Object> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType, MimeType mimeType,
+                                     Map<String, Object> hints) {
+        return decode(inputStream, elementType, mimeType, hints).singleOrEmpty();
+    }
+
+    private static boolean supportsMimeType(MimeType mimeType) {
+        if (mimeType == null) {
+            return true;
+        }
+        if (mimeType.getCharset() != null && !StandardCharsets.UTF_8.equals(mimeType.getCharset())) {
+            return false;
+        }
+        return MIME_TYPES.stream().anyMatch(supported -> supported.isCompatibleWith(mimeType));
+    }
+
+    enum Model {
+        REPOSITORY(Map.of("name", 0, "fork", 2, "pushed_at", 3, "updated_at", 4), Map.of("owner", Map.of("login", 1))) {
+            @Override
+            Object create(Object[] values) {
+                return new Repository((String) values[0], values[1] != null ? new Owner((String) values[1]) : null,
+                        null, Boolean.TRUE.equals(values[2]), instant(values[3]), instant(values[4]));
+            }
+        },
+        BRANCH(Map.of("name", 0), Map.of("commit", Map.of("sha", 1))) {
+            @Override
+            Object create(Object[] values) {
+                return new Branch((String) values[0], values[1] != null ? new Commit((String) values[1]) : null);
+            }
+        };
+
+        private final Map<String, Integer> fields;
+        private final Map<String, Map<String, Integer>> nestedFields;
+        private final int size;
+
+        Model(Map<String, Integer> fields, Map<String, Map<String, Integer>> nestedFields) {
+            this.fields = fields;
+            this.nestedFields = nestedFields;
+            this.size = fields.size() + nestedFields.values().stream().mapToInt(Map::size).sum();
+        }
+
+        abstract Object create(Object[] values);
+
+        private static Instant instant(Object value) {
+            try {
+                return value != null ? Instant.parse((String) value) : null;
+            } catch (DateTimeParseException e) {
+                throw new DecodingException("JSON decoding error: invalid timestamp " + value, e);
+            }
+        }
+
+        static Model of(Class<?> type) {
+            if (type == Repository.class) {
+                return REPOSITORY;
+            }
+            if (type == Branch.class) {
+                return BRANCH;
+            }
+            return null;
+        }
+    }
+
+    private static final class ElementReader {
+        private final Model model;
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final int maxInMemorySize;
+
+        private boolean rootSeen;
+        private Object[] values;
+        private long elementStart;
+        private Map<String, Integer> nestedFields;
+        private Map<String, Integer> pendingNestedFields;
+        private int pendingIndex = -1;
+        private int skipDepth;
+
+        ElementReader(Model model, JsonParser parser, int maxInMemorySize) {
+            this.model = model;
+            this.parser = parser;
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            this.maxInMemorySize = maxInMemorySize;
+        }
+
+        List<Object> read(DataBuffer buffer) {
+            List<Object> elements = new ArrayList<>();
+            try (DataBuffer.ByteBufferIterator byteBuffers = buffer.readableByteBuffers()) {
+                while (byteBuffers.hasNext()) {
+                    feeder.feedInput(byteBuffers.next());
+                    drain(elements);
+                }
+            } catch (IOException ex) {
+                throw decodingException(ex);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+            checkElementSize();
+            return elements;
+        }
+
+        List<Object> endOfInput() {
+            List<Object> elements = new ArrayList<>();
+            feeder.endOfInput();
+            try {
+                drain(elements);
+            } catch (IOException ex) {
+                throw decodingException(ex);
+            }
+            if (values != null || skipDepth > 0) {
+                throw new DecodingException("Incomplete JSON: the response ended inside an object");
+            }
+            return elements;
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void drain(List<Object> elements) throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                Object element = onToken(token);
+                if (element != null) {
+                    elements.add(element);
+                }
+            }
+        }
+
+        private Object onToken(JsonToken token) throws IOException {
+            if (skipDepth > 0) {
+                if (token.isStructStart()) {
+                    skipDepth++;
+                } else if (token.isStructEnd()) {
+                    skipDepth--;
+                }
+                return null;
+            }
+
+            switch (token) {
+                case START_ARRAY -> {
+                    if (!rootSeen && values == null) {
+                        rootSeen = true;
+                    } else {
+                        skipValue();
+                    }
+                }
+                case START_OBJECT -> {
+                    if (values == null) {
+                        rootSeen = true;
+                        values = new Object[model.size];
+                        elementStart = parser.currentTokenLocation().getByteOffset();
+                    } else if (pendingNestedFields != null) {
+                        nestedFields = pendingNestedFields;
+                        pendingNestedFields = null;
+                        pendingIndex = -1;
+                    } else {
+                        skipValue();
+                    }
+                }
+                case END_OBJECT -> {
+                    if (nestedFields != null) {
+                        nestedFields = null;
+                    } else if (values != null) {
+                        Object element = model.create(values);
+                        values = null;
+                        return element;
+                    }
+                }
+                case FIELD_NAME -> {
+                    String name = parser.currentName();
+                    Integer index = (nestedFields != null ? nestedFields : model.fields).get(name);
+                    pendingIndex = index != null ? index : -1;
+                    pendingNestedFields = nestedFields == null ? model.nestedFields.get(name) : null;
+                }
+                case VALUE_STRING, VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> setValue(isWanted() ? parser.getText() : null);
+                case VALUE_TRUE -> setValue(Boolean.TRUE);
+                case VALUE_FALSE -> setValue(Boolean.FALSE);
+                case VALUE_NULL -> setValue(null);
+                default -> { }
+            }
+            return null;
+        }
+
+        private boolean isWanted() {
+            return values != null && pendingIndex >= 0;
+        }
+
+        private void setValue(Object value) {
+            if (isWanted()) {
+                values[pendingIndex] = value;
+            }
+            pendingIndex = -1;
+            pendingNestedFields = null;
+        }
+
+        private void skipValue() {
+            skipDepth = 1;
+            pendingIndex = -1;
+            pendingNestedFields = null;
+        }
+
+        private void checkElementSize() {
+            if (maxInMemorySize >= 0 && values != null
+                    && parser.currentLocation().getByteOffset() - elementStart > maxInMemorySize) {
+                throw new DataBufferLimitException(
+                        "Exceeded limit on max bytes per JSON object: " + maxInMemorySize);
+            }
+        }
+
+        private DecodingException decodingException(IOException ex) {
+            String message = ex instanceof JsonProcessingException processingException
+                    ? processingException.getOriginalMessage()
+                    : ex.getMessage();
+            return new DecodingException("JSON decoding error: " + message, ex);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.githubrepository.concurrency;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+
+public class PermitPool {
+    private final IntSupplier maxPermits;
+    private final double batchShare;
+    private final int maxWaiting;
+    private final Duration maxWait;
+    private final Queue<Waiter> interactiveWaiters = new ArrayDeque<>();
+    private final Queue<Waiter> batchWaiters = new ArrayDeque<>();
+    private int inUse;
+    private int batchInUse;
+
+    public PermitPool(int maxPermits) {
+        this(() -> maxPermits);
+    }
+
+    public PermitPool(IntSupplier maxPermits) {
+        this(maxPermits, 1.0);
+    }
+
+    public PermitPool(IntSupplier maxPermits, double batchShare) {
+        this(maxPermits, batchShare, Integer.MAX_VALUE, null);
+    }
+
+    public PermitPool(IntSupplier maxPermits, double batchShare, int maxWaiting, Duration maxWait) {
+        this.maxPermits = maxPermits;
+        this.batchShare = batchShare;
+        this.maxWaiting = maxWaiting;
+        this.maxWait = maxWait;
+    }
+
+    public <T> Mono<T> withPermit(Mono<T> source) {
+        return withPermit(source, Priority.INTERACTIVE);
+    }
+
+    public <T> Mono<T> withPermit(Mono<T> source, Priority priority) {
+        return Mono.usingWhen(acquire(priority),
+                permit -> source,
+                permit -> Mono.fromRunnable(permit::release),
+                (permit, error) -> Mono.fromRunnable(permit::release),
+                permit -> Mono.fromRunnable(permit::release));
+    }
+
+    public <T> Flux<T> withPermit(Flux<T> source, Priority priority) {
+        return Flux.usingWhen(acquire(priority),
+                permit -> source,
+                permit -> Mono.fromRunnable(permit::release),
+                (permit, error) -> Mono.fromRunnable(permit::release),
+                permit -> Mono.fromRunnable(permit::release));
+    }
+
+    public synchronized int inUse() {
+        return inUse;
+    }
+
+    public synchronized int waiting() {
+        return interactiveWaiters.size() + batchWaiters.size();
+    }
+
+    private Mono<Permit> acquire(Priority priority) {
+        Mono<Permit> permit = Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink, priority);
+            List<Waiter> granted;
+            boolean rejected;
+            synchronized (this) {
+                waitersFor(priority).add(waiter);
+                granted = grantAvailable();
+                rejected = waiter.permit == null && waiting() > maxWaiting;
+                if (rejected) {
+                    waitersFor(priority).remove(waiter);
+                }
+            }
+            if (rejected) {
+                sink.error(new RejectedExecutionException("Too many callers waiting for a permit"));
+                return;
+            }
+            sink.onCancel(() -> cancel(waiter));
+            granted.forEach(Waiter::grant);
+        });
+
+        return maxWait == null
+                ? permit
+                : permit.timeout(maxWait, Mono.error(() ->
+                        new RejectedExecutionException("Timed out waiting for a permit after " + maxWait)));
+    }
+
+    private void cancel(Waiter waiter) {
+        boolean stillWaiting;
+        synchronized (this) {
+            stillWaiting = waitersFor(waiter.priority).remove(waiter);
+        }
+        if (!stillWaiting && waiter.permit != null) {
+            waiter.permit.release();
+        }
+    }
+
+    private void release(Priority priority) {
+        List<Waiter> granted;
+        synchronized (this) {
+            inUse--;
+            if (priority == Priority.BATCH) {
+                batchInUse--;
+            }
+            granted = grantAvailable();
+        }
+        granted.forEach(Waiter::grant);
+    }
+
+    private Queue<Waiter> waitersFor(Priority priority) {
+        return priority == Priority.BATCH ? batchWaiters : interactiveWaiters;
+    }
+
+    private List<Waiter> grantAvailable() {
+        List<Waiter> granted = new ArrayList<>();
+        int limit = Math.max(1, maxPermits.getAsInt());
+        int batchLimit = Math.max(1, (int) (limit * batchShare));
+        while (inUse < limit) {
+            Waiter waiter;
+            if (!interactiveWaiters.isEmpty()) {
+                waiter = interactiveWaiters.poll();
+            } else if (!batchWaiters.isEmpty() && batchInUse < batchLimit) {
+                waiter = batchWaiters.poll();
+                batchInUse++;
+            } else {
+                break;
+            }
+            waiter.permit = new Permit(waiter.priority);
+            inUse++;
+            granted.add(waiter);
+        }
+        return granted;
+    }
+
+    private final class Permit {
+        private final Priority priority;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(Priority priority) {
+            this.priority = priority;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                PermitPool.this.release(priority);
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        private final Priority priority;
+        private volatile Permit permit;
+
+        Waiter(MonoSink<Permit> sink, Priority priority) {
+            this.sink = sink;
+            this.priority = priority;
+        }
+
+        void grant() {
+            sink.success(permit);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.githubrepository.concurrency;
+
+import reactor.util.context.ContextView;
+
+public enum Priority {
+    INTERACTIVE,
+    BATCH;
+
+    public static final String CONTEXT_KEY = Priority.class.getName();
+
+    public static Priority from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, INTERACTIVE);
+    }
+}
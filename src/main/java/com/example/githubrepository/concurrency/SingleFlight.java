@@ -0,0 +1,31 @@
+package com.example.githubrepository.concurrency;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> share(k, call)));
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Mono<V> share(K key, Supplier<Mono<V>> call) {
+        AtomicReference<Mono<V>> shared = new AtomicReference<>();
+        shared.set(Flux.from(Mono.defer(call))
+                .doFinally(signal -> inFlight.remove(key, shared.get()))
+                .replay(1)
+                .refCount()
+                .singleOrEmpty());
+        return shared.get();
+    }
+}
@@ -1,10 +1,17 @@
 package com.example.githubrepository.config;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 @Profile("!test")
@@ -12,8 +19,65 @@ public class AppConfig {
     @Value("${github.api.base-url}")
     private String githubApiBaseUrl;
 
+    @Value("${github.http.pool.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${github.http.pool.pending-acquire-max-count:1000}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${github.http.pool.pending-acquire-timeout:5s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${github.http.pool.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${github.http.pool.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${github.http.pool.eviction-interval:30s}")
+    private Duration evictionInterval;
+
+    @Value("${github.http.pool.metrics-enabled:true}")
+    private boolean poolMetricsEnabled;
+
+    @Value("${github.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${github.http.response-timeout:10s}")
+    private Duration responseTimeout;
+
+    @Value("${github.http.compression-enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${github.http.http2-enabled:false}")
+    private boolean http2Enabled;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider githubConnectionProvider() {
+        return ConnectionProvider.builder("github")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictionInterval)
+                .metrics(poolMetricsEnabled)
+                .build();
+    }
+
     @Bean
-    public WebClient webClient() {
-        return WebClient.create(githubApiBaseUrl);
+    public WebClient webClient(ConnectionProvider githubConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(githubConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .compress(compressionEnabled)
+                .protocol(http2Enabled
+                        ? new HttpProtocol[] {HttpProtocol.H2, HttpProtocol.HTTP11}
+                        : new HttpProtocol[] {HttpProtocol.HTTP11});
+
+        return WebClient.builder()
+                .baseUrl(githubApiBaseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
 }
@@ -0,0 +1,25 @@
+package com.example.githubrepository.config;
+
+import com.example.githubrepository.dto.BatchRequest;
+import com.example.githubrepository.dto.RepositoryDto;
+import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.example.githubrepository.dto.UserRepositoriesResult;
+import com.example.githubrepository.exception.ErrorResponse;
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Repository;
+import com.example.githubrepository.tracing.TraceWaterfall;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+public class GitHubRuntimeHints implements RuntimeHintsRegistrar {
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                Repository.class, Branch.class,
+                RepositoryDto.class, RepositoryDtoArray.class, BatchRequest.class, UserRepositoriesResult.class,
+                ErrorResponse.class, TraceWaterfall.class);
+    }
+}
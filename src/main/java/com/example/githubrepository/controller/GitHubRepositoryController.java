@@ -1,29 +1,206 @@
 package com.example.githubrepository.controller;
 
+import com.example.githubrepository.cache.EncodedResponseCache;
+import com.example.githubrepository.cache.EncodedResponseCache.EncodedResponse;
+import com.example.githubrepository.concurrency.Priority;
+import com.example.githubrepository.dto.BatchRequest;
 import com.example.githubrepository.dto.RepositoryDto;
-import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.example.githubrepository.dto.UserRepositoriesResult;
+import com.example.githubrepository.exception.BadRequestException;
+import com.example.githubrepository.service.AdmissionControl;
+import com.example.githubrepository.service.GitHubBatchService;
 import com.example.githubrepository.service.GitHubRepositoryService;
+import com.example.githubrepository.service.RepositoryQuery;
+import com.example.githubrepository.tracing.RequestTrace;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/github")
 public class GitHubRepositoryController {
+    static final String LATENCY_BUDGET_HEADER = "X-Latency-Budget";
+
     private final GitHubRepositoryService gitHubRepositoryService;
+    private final GitHubBatchService gitHubBatchService;
+    private final AdmissionControl admissionControl;
+    private final EncodedResponseCache encodedResponseCache;
 
-    GitHubRepositoryController(GitHubRepositoryService service) {
+    GitHubRepositoryController(GitHubRepositoryService service, GitHubBatchService batchService,
+                               AdmissionControl admissionControl, EncodedResponseCache encodedResponseCache) {
         this.gitHubRepositoryService = service;
+        this.gitHubBatchService = batchService;
+        this.admissionControl = admissionControl;
+        this.encodedResponseCache = encodedResponseCache;
     }
 
     @GetMapping("/users/{username}/repositories")
-    public Mono<ResponseEntity<RepositoryDtoArray>> listUserRepositories(@PathVariable String username) {
-        return gitHubRepositoryService.getUserRepositories(username)
-                .map(repositories -> ResponseEntity.ok().body(repositories));
+    public Mono<ResponseEntity<byte[]>> listUserRepositories(
+            @PathVariable String username,
+            @RequestParam(name = "budget", required = false) String budget,
+            @RequestParam(name = "since", required = false) String since,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "includeBranches", defaultValue = "true") boolean includeBranches,
+            @RequestParam(name = "maxBranches", required = false) Integer maxBranches,
+            @RequestParam(name = "name", required = false) String name,
+            @RequestHeader(name = LATENCY_BUDGET_HEADER, required = false) String budgetHeader,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return Mono.defer(() -> {
+            RepositoryQuery query = toQuery(since, fields, includeBranches, maxBranches, name);
+            return admissionControl.admit(Mono.defer(() -> gitHubRepositoryService.getUserRepositories(username,
+                            parseBudget(budget, budgetHeader), query)), Priority.INTERACTIVE)
+                    .flatMap(repositories -> Mono.deferContextual(context -> {
+                        long start = System.nanoTime();
+                        EncodedResponse encoded = encodedResponseCache.get(query.isAll() ? username : null, repositories);
+                        RequestTrace.from(context).ifPresent(trace ->
+                                trace.record("encode", null, start, System.nanoTime(), null, false));
+                        return Mono.just(toResponse(encoded, ifNoneMatch, acceptEncoding));
+                    }));
+        });
+    }
+
+    @GetMapping(value = "/users/{username}/repositories",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<RepositoryDto> streamUserRepositories(
+            @PathVariable String username,
+            @RequestParam(name = "budget", required = false) String budget,
+            @RequestParam(name = "since", required = false) String since,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "includeBranches", defaultValue = "true") boolean includeBranches,
+            @RequestParam(name = "maxBranches", required = false) Integer maxBranches,
+            @RequestParam(name = "name", required = false) String name,
+            @RequestHeader(name = LATENCY_BUDGET_HEADER, required = false) String budgetHeader) {
+        return admissionControl.admit(Flux.defer(() -> gitHubRepositoryService.streamUserRepositories(username,
+                parseBudget(budget, budgetHeader), toQuery(since, fields, includeBranches, maxBranches, name))),
+                Priority.INTERACTIVE);
+    }
+
+    @PostMapping(value = "/users/repositories/batch",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<UserRepositoriesResult> batchUserRepositories(@RequestBody BatchRequest request) {
+        return admissionControl.admit(Flux.defer(() -> gitHubBatchService.getUserRepositories(request.usernames())),
+                Priority.BATCH);
+    }
+
+    private ResponseEntity<byte[]> toResponse(EncodedResponse encoded, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = encoded.gzipBody() != null && acceptsGzip(acceptEncoding);
+        if (encoded.matches(ifNoneMatch)) {
+            encodedResponseCache.recordNotModified();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(gzip ? encoded.gzipETag() : encoded.eTag())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.eTag(encoded.gzipETag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(encoded.gzipBody());
+        }
+        return response.eTag(encoded.eTag()).body(encoded.body());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            if (parameters[0].trim().equalsIgnoreCase("gzip")) {
+                return parameters.length == 1 || !parameters[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private Duration parseBudget(String budget, String budgetHeader) {
+        String value = budget != null ? budget : budgetHeader;
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            Duration duration = DurationStyle.detectAndParse(value.trim());
+            if (duration.isNegative() || duration.isZero()) {
+                throw new BadRequestException("Latency budget must be positive: " + value);
+            }
+            return duration;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid latency budget: " + value);
+        }
+    }
+
+    private RepositoryQuery toQuery(String since, String fields, boolean includeBranches, Integer maxBranches,
+                                    String name) {
+        if (maxBranches != null && maxBranches < 0) {
+            throw new BadRequestException("maxBranches must not be negative: " + maxBranches);
+        }
+        return new RepositoryQuery(parseSince(since), parseNamePattern(name), parseFields(fields), includeBranches,
+                maxBranches);
+    }
+
+    private Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        for (String field : requested) {
+            if (!RepositoryQuery.FIELDS.contains(field)) {
+                throw new BadRequestException("Unknown field: " + field + ", expected any of " + RepositoryQuery.FIELDS);
+            }
+        }
+        return requested;
+    }
+
+    private Pattern parseNamePattern(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+
+        String regex = Arrays.stream(name.trim().split("\\*", -1))
+                .map(part -> part.isEmpty() ? "" : Pattern.quote(part))
+                .collect(Collectors.joining(".*"));
+        return Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    private Instant parseSince(String since) {
+        if (since == null || since.isBlank()) {
+            return null;
+        }
+
+        try {
+            return Instant.parse(since.trim());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid since timestamp, expected ISO-8601 such as 2024-01-01T00:00:00Z: " + since);
+        }
     }
 }
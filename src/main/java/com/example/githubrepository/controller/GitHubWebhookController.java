@@ -0,0 +1,38 @@
+package com.example.githubrepository.controller;
+
+import com.example.githubrepository.exception.AccessDeniedException;
+import com.example.githubrepository.metrics.GitHubMetrics;
+import com.example.githubrepository.service.GitHubWebhookService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/github")
+public class GitHubWebhookController {
+    static final String EVENT_HEADER = "X-GitHub-Event";
+    static final String SIGNATURE_HEADER = "X-Hub-Signature-256";
+
+    private final GitHubWebhookService gitHubWebhookService;
+    private final GitHubMetrics gitHubMetrics;
+
+    GitHubWebhookController(GitHubWebhookService webhookService, GitHubMetrics metrics) {
+        this.gitHubWebhookService = webhookService;
+        this.gitHubMetrics = metrics;
+    }
+
+    @PostMapping("/webhooks")
+    public Mono<ResponseEntity<Void>> receiveWebhook(
+            @RequestHeader(name = EVENT_HEADER, required = false) String event,
+            @RequestHeader(name = SIGNATURE_HEADER, required = false) String signature,
+            @RequestBody byte[] payload) {
+        return Mono.fromCallable(() -> gitHubWebhookService.handle(event, signature, payload))
+                .doOnNext(outcome -> gitHubMetrics.recordWebhook(event, outcome))
+                .doOnError(AccessDeniedException.class, e -> gitHubMetrics.recordWebhook(null, "rejected"))
+                .map(outcome -> ResponseEntity.noContent().build());
+    }
+}
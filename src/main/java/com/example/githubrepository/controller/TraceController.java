@@ -0,0 +1,36 @@
+package com.example.githubrepository.controller;
+
+import com.example.githubrepository.tracing.TraceStore;
+import com.example.githubrepository.tracing.TraceWaterfall;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/github")
+@ConditionalOnProperty(name = "github.tracing.waterfall.enabled", havingValue = "true")
+public class TraceController {
+    private final TraceStore traceStore;
+
+    TraceController(TraceStore traceStore) {
+        this.traceStore = traceStore;
+    }
+
+    @GetMapping("/traces")
+    public Mono<List<TraceWaterfall>> listTraces() {
+        return Mono.fromSupplier(traceStore::recent);
+    }
+
+    @GetMapping("/traces/{traceId}")
+    public Mono<ResponseEntity<TraceWaterfall>> getTrace(@PathVariable String traceId) {
+        return Mono.justOrEmpty(traceStore.get(traceId))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
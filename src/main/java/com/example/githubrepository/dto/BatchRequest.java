@@ -0,0 +1,7 @@
+package com.example.githubrepository.dto;
+
+import java.util.List;
+
+public record BatchRequest(
+        List<String> usernames
+) { }
@@ -2,12 +2,15 @@ package com.example.githubrepository.dto;
 
 import com.example.githubrepository.model.Branch;
 import com.example.githubrepository.model.Owner;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.util.List;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record RepositoryDto(
     String name,
     Owner owner,
     List<Branch> branches,
-    boolean fork
+    Boolean fork,
+    RepositoryStatus status
 ) { }
@@ -0,0 +1,7 @@
+package com.example.githubrepository.dto;
+
+public enum RepositoryStatus {
+    COMPLETE,
+    TIMED_OUT,
+    FAILED
+}
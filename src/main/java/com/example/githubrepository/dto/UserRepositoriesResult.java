@@ -0,0 +1,12 @@
+package com.example.githubrepository.dto;
+
+import com.example.githubrepository.exception.ErrorResponse;
+
+import java.util.List;
+
+public record UserRepositoriesResult(
+        String username,
+        List<RepositoryDto> repositories,
+        ErrorResponse error,
+        Long retryAfter
+) { }
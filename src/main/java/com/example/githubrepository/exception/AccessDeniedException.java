@@ -2,6 +2,6 @@ package com.example.githubrepository.exception;
 
 public class AccessDeniedException extends RuntimeException {
     public AccessDeniedException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -2,6 +2,6 @@ package com.example.githubrepository.exception;
 
 public class BadRequestException extends RuntimeException {
     public BadRequestException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,7 @@
+package com.example.githubrepository.exception;
+
+public class BranchNotFoundException extends BranchRetrievalException {
+    public BranchNotFoundException(String message) {
+        super(message);
+    }
+}
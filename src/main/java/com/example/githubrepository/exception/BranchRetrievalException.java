@@ -2,6 +2,6 @@ package com.example.githubrepository.exception;
 
 public class BranchRetrievalException extends RuntimeException {
     public BranchRetrievalException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
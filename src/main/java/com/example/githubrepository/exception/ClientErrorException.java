@@ -2,6 +2,6 @@ package com.example.githubrepository.exception;
 
 public class ClientErrorException extends RuntimeException {
     public ClientErrorException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,48 @@
+package com.example.githubrepository.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+public final class ErrorResponseMapper {
+    private ErrorResponseMapper() { }
+
+    public static HttpStatus toStatus(Throwable e) {
+        HttpStatus status = mappedStatus(e);
+        return status != null ? status : HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    public static ErrorResponse toErrorResponse(Throwable e) {
+        HttpStatus status = mappedStatus(e);
+        return status != null
+                ? new ErrorResponse(status.value(), e.getMessage())
+                : new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Server error");
+    }
+
+    public static Long retryAfterSeconds(Throwable e) {
+        Duration retryAfter = switch (e) {
+            case RateLimitExceededException ex -> ex.getRetryAfter();
+            case OverloadedException ex -> ex.getRetryAfter();
+            default -> null;
+        };
+        if (retryAfter == null) {
+            return null;
+        }
+        return Math.max(1, retryAfter.toSeconds() + (retryAfter.toNanosPart() > 0 ? 1 : 0));
+    }
+
+    private static HttpStatus mappedStatus(Throwable e) {
+        return switch (e) {
+            case UserNotFoundException ex -> HttpStatus.NOT_FOUND;
+            case AccessDeniedException ex -> HttpStatus.FORBIDDEN;
+            case RateLimitExceededException ex -> HttpStatus.TOO_MANY_REQUESTS;
+            case BadRequestException ex -> HttpStatus.BAD_REQUEST;
+            case ServiceUnavailableException ex -> HttpStatus.SERVICE_UNAVAILABLE;
+            case OverloadedException ex -> HttpStatus.SERVICE_UNAVAILABLE;
+            case BranchRetrievalException ex -> HttpStatus.INTERNAL_SERVER_ERROR;
+            case ClientErrorException ex -> HttpStatus.BAD_REQUEST;
+            case ServerErrorException ex -> HttpStatus.INTERNAL_SERVER_ERROR;
+            default -> null;
+        };
+    }
+}
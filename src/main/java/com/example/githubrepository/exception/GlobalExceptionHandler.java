@@ -1,5 +1,7 @@
 package com.example.githubrepository.exception;
 
+import com.example.githubrepository.metrics.GitHubMetrics;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -7,43 +9,32 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
-    @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleUserNotFoundException(UserNotFoundException e) {
-        return buildErrorResponse(HttpStatus.NOT_FOUND, e.getMessage());
-    }
-
-    @ExceptionHandler(AccessDeniedException.class)
-    public ResponseEntity<ErrorResponse> handleAccessDeniedException(AccessDeniedException e) {
-        return buildErrorResponse(HttpStatus.FORBIDDEN, e.getMessage());
-    }
-
-    @ExceptionHandler(BadRequestException.class)
-    public ResponseEntity<ErrorResponse> handleBadRequestException(BadRequestException e) {
-        return buildErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
-    }
-
-    @ExceptionHandler(ServiceUnavailableException.class)
-    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException e) {
-        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
-    }
-
-    @ExceptionHandler(BranchRetrievalException.class)
-    public ResponseEntity<ErrorResponse> handleBranchRetrievalException(BranchRetrievalException e) {
-        return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
-    }
-
-    @ExceptionHandler(ClientErrorException.class)
-    public ResponseEntity<ErrorResponse> handleClientErrorException(ClientErrorException e) {
-        return buildErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
-    }
-
-    @ExceptionHandler(ServerErrorException.class)
-    public ResponseEntity<ErrorResponse> handleServerErrorException(ServerErrorException e) {
-        return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
-    }
-
-    private ResponseEntity<ErrorResponse> buildErrorResponse(HttpStatus status, String message) {
-        ErrorResponse errorResponse = new ErrorResponse(status.value(), message);
-        return new ResponseEntity<>(errorResponse, status);
+    private final GitHubMetrics gitHubMetrics;
+
+    public GlobalExceptionHandler(GitHubMetrics gitHubMetrics) {
+        this.gitHubMetrics = gitHubMetrics;
+    }
+
+    @ExceptionHandler({
+            UserNotFoundException.class,
+            AccessDeniedException.class,
+            RateLimitExceededException.class,
+            BadRequestException.class,
+            ServiceUnavailableException.class,
+            OverloadedException.class,
+            BranchRetrievalException.class,
+            ClientErrorException.class,
+            ServerErrorException.class
+    })
+    public ResponseEntity<ErrorResponse> handleException(RuntimeException e) {
+        HttpStatus status = ErrorResponseMapper.toStatus(e);
+        gitHubMetrics.recordErrorResponse(status, e);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        Long retryAfterSeconds = ErrorResponseMapper.retryAfterSeconds(e);
+        if (retryAfterSeconds != null) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        return response.body(ErrorResponseMapper.toErrorResponse(e));
     }
 }
@@ -2,6 +2,6 @@ package com.example.githubrepository.exception;
 
 public class ServerErrorException extends RuntimeException {
     public ServerErrorException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
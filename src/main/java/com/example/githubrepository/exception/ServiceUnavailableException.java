@@ -2,6 +2,6 @@ package com.example.githubrepository.exception;
 
 public class ServiceUnavailableException extends RuntimeException {
     public ServiceUnavailableException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -1,7 +1,9 @@
 package com.example.githubrepository.exception;
 
 public class UserNotFoundException extends RuntimeException {
+    public static final UserNotFoundException USER_NOT_FOUND = new UserNotFoundException("User not found");
+
     public UserNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,256 @@
+package com.example.githubrepository.metrics;
+
+import com.example.githubrepository.cache.BranchSnapshotCache;
+import com.example.githubrepository.cache.ConditionalRequestCache;
+import com.example.githubrepository.cache.DiskCacheStore;
+import com.example.githubrepository.cache.EncodedResponseCache;
+import com.example.githubrepository.cache.NegativeCache;
+import com.example.githubrepository.cache.UserRepositoriesCache;
+import com.example.githubrepository.concurrency.PermitPool;
+import com.example.githubrepository.dto.RepositoryStatus;
+import com.example.githubrepository.ratelimit.GitHubRateLimiter;
+import com.example.githubrepository.ratelimit.TokenBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class GitHubMetrics implements ExchangeFilterFunction {
+    public static final String ENDPOINT_ATTRIBUTE = GitHubMetrics.class.getName() + ".endpoint";
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlightUpstreamCalls = new AtomicInteger();
+    private final DistributionSummary fanOutWidth;
+    private final DistributionSummary repositoriesPerUser;
+
+    public GitHubMetrics(MeterRegistry meterRegistry, ConditionalRequestCache conditionalRequestCache,
+                         GitHubRateLimiter rateLimiter, Optional<DiskCacheStore> diskCacheStore,
+                         UserRepositoriesCache userRepositoriesCache, BranchSnapshotCache branchSnapshotCache,
+                         NegativeCache negativeCache, EncodedResponseCache encodedResponseCache) {
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("github.upstream.in-flight", inFlightUpstreamCalls, AtomicInteger::get)
+                .description("Upstream GitHub calls currently awaiting a response")
+                .register(meterRegistry);
+        Gauge.builder("github.rate-limit.remaining", rateLimiter, GitHubRateLimiter::remaining)
+                .description("Remaining GitHub rate-limit budget, -1 when unknown")
+                .register(meterRegistry);
+        for (TokenBudget budget : rateLimiter.tokenBudgets()) {
+            Gauge.builder("github.rate-limit.token.remaining", budget, TokenBudget::remaining)
+                    .description("Remaining GitHub rate-limit budget of a token, -1 when unknown")
+                    .tag("token", budget.id())
+                    .register(meterRegistry);
+            Gauge.builder("github.rate-limit.token.quarantined", budget,
+                            tokenBudget -> tokenBudget.isQuarantined() ? 1 : 0)
+                    .description("Whether a token is quarantined after an authentication failure")
+                    .tag("token", budget.id())
+                    .register(meterRegistry);
+            FunctionCounter.builder("github.rate-limit.token.requests", budget, TokenBudget::requestCount)
+                    .description("Upstream calls sent with a token")
+                    .tag("token", budget.id())
+                    .register(meterRegistry);
+            FunctionCounter.builder("github.rate-limit.token.quarantines", budget, TokenBudget::quarantineCount)
+                    .description("Times a token was quarantined after a 401 response")
+                    .tag("token", budget.id())
+                    .register(meterRegistry);
+        }
+
+        this.fanOutWidth = DistributionSummary.builder("github.fan-out.width")
+                .description("Branch listings fetched per user request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.repositoriesPerUser = DistributionSummary.builder("github.user.repositories")
+                .description("Non-fork repositories returned per user")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        FunctionCounter.builder("github.cache.conditional.requests", conditionalRequestCache, ConditionalRequestCache::hitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("github.cache.conditional.requests", conditionalRequestCache, ConditionalRequestCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("github.cache.conditional.requests", conditionalRequestCache, ConditionalRequestCache::revalidationCount)
+                .tag("result", "revalidation")
+                .register(meterRegistry);
+        Gauge.builder("github.cache.conditional.size", conditionalRequestCache, ConditionalRequestCache::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("github.cache.result.requests", userRepositoriesCache, UserRepositoriesCache::freshHitCount)
+                .tag("result", "fresh")
+                .register(meterRegistry);
+        FunctionCounter.builder("github.cache.result.requests", userRepositoriesCache, UserRepositoriesCache::staleHitCount)
+                .tag("result", "stale")
+                .register(meterRegistry);
+        FunctionCounter.builder("github.cache.result.requests", userRepositoriesCache, UserRepositoriesCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("github.cache.result.size", userRepositoriesCache, UserRepositoriesCache::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("github.cache.branches.requests", branchSnapshotCache, BranchSnapshotCache::hitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("github.cache.branches.requests", branchSnapshotCache, BranchSnapshotCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("github.cache.branches.size", branchSnapshotCache, BranchSnapshotCache::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("github.cache.negative.hits", negativeCache, NegativeCache::hitCount)
+                .description("Lookups answered from the negative cache without an upstream call")
+                .register(meterRegistry);
+        Gauge.builder("github.cache.negative.size", negativeCache, NegativeCache::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("github.cache.encoded.requests", encodedResponseCache, EncodedResponseCache::hitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("github.cache.encoded.requests", encodedResponseCache, EncodedResponseCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("github.cache.encoded.not-modified", encodedResponseCache, EncodedResponseCache::notModifiedCount)
+                .description("Responses answered with 304 Not Modified for a matching If-None-Match")
+                .register(meterRegistry);
+        Gauge.builder("github.cache.encoded.size", encodedResponseCache, EncodedResponseCache::size)
+                .register(meterRegistry);
+        diskCacheStore.ifPresent(store -> {
+            Gauge.builder("github.cache.disk.size", store, DiskCacheStore::sizeInBytes)
+                    .description("Size of the on-disk conditional request cache file")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("github.cache.disk.entries", store, DiskCacheStore::entryCount)
+                    .description("Live entries in the on-disk conditional request cache")
+                    .register(meterRegistry);
+            FunctionCounter.builder("github.cache.disk.write-failures", store, DiskCacheStore::droppedWriteCount)
+                    .description("Disk cache writes that were not persisted")
+                    .tag("reason", "queue-full")
+                    .register(meterRegistry);
+            FunctionCounter.builder("github.cache.disk.write-failures", store, DiskCacheStore::failedWriteCount)
+                    .description("Disk cache writes that were not persisted")
+                    .tag("reason", "io-error")
+                    .register(meterRegistry);
+        });
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String endpoint = request.attribute(ENDPOINT_ATTRIBUTE).map(Object::toString).orElse("unknown");
+
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicBoolean recorded = new AtomicBoolean();
+            inFlightUpstreamCalls.incrementAndGet();
+
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            stop(sample, endpoint, String.valueOf(response.statusCode().value()));
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            stop(sample, endpoint, "IO_ERROR");
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            stop(sample, endpoint, "CANCELLED");
+                        }
+                    })
+                    .map(response -> countPayloadBytes(response, endpoint));
+        });
+    }
+
+    public void recordFanOut(int branchCalls, int repositories) {
+        fanOutWidth.record(branchCalls);
+        repositoriesPerUser.record(repositories);
+    }
+
+    public void recordIncompleteRepository(RepositoryStatus status) {
+        Counter.builder("github.repositories.incomplete")
+                .description("Repositories returned without their branches because the latency budget elapsed or the listing failed")
+                .tag("status", status.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void registerAdmissionQueue(PermitPool admissionPermits) {
+        Gauge.builder("github.admission.in-flight", admissionPermits, PermitPool::inUse)
+                .description("User requests currently admitted")
+                .register(meterRegistry);
+        Gauge.builder("github.admission.queued", admissionPermits, PermitPool::waiting)
+                .description("User requests waiting for admission")
+                .register(meterRegistry);
+    }
+
+    public void recordAdmission(String outcome) {
+        Counter.builder("github.admission.requests")
+                .description("User requests by admission outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordWebhook(String event, String outcome) {
+        Counter.builder("github.webhook.events")
+                .description("GitHub webhook deliveries by event and outcome")
+                .tag("event", event != null ? event : "unknown")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordHotRefresh(String outcome) {
+        Counter.builder("github.cache.result.refreshes")
+                .description("Proactive refreshes of frequently requested usernames")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordErrorResponse(HttpStatusCode status, Throwable exception) {
+        Counter.builder("github.error.responses")
+                .description("Error responses returned by GlobalExceptionHandler")
+                .tag("status", String.valueOf(status.value()))
+                .tag("exception", exception.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void stop(Timer.Sample sample, String endpoint, String status) {
+        inFlightUpstreamCalls.decrementAndGet();
+        sample.stop(Timer.builder("github.upstream.requests")
+                .description("Latency of upstream GitHub calls until response headers arrive")
+                .tag("endpoint", endpoint)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private ClientResponse countPayloadBytes(ClientResponse response, String endpoint) {
+        LongAdder bytes = new LongAdder();
+        DistributionSummary payloadBytes = DistributionSummary.builder("github.upstream.payload")
+                .description("Bytes of upstream response bodies decoded")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+
+        return response.mutate()
+                .body(body -> body
+                        .doOnNext(buffer -> bytes.add(buffer.readableByteCount()))
+                        .doOnComplete(() -> payloadBytes.record(bytes.sum())))
+                .build();
+    }
+}
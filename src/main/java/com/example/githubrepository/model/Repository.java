@@ -1,10 +1,19 @@
 package com.example.githubrepository.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
 import java.util.List;
 
 public record Repository(
      String name,
      Owner owner,
      List<Branch> branches,
-     boolean fork
-) { }
+     boolean fork,
+     @JsonProperty("pushed_at") Instant pushedAt,
+     @JsonProperty("updated_at") Instant updatedAt
+) {
+    public Repository withBranches(List<Branch> branches) {
+        return new Repository(name, owner, branches, fork, pushedAt, updatedAt);
+    }
+}
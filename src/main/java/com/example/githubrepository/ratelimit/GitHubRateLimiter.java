@@ -0,0 +1,159 @@
+package com.example.githubrepository.ratelimit;
+
+import com.example.githubrepository.exception.RateLimitExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class GitHubRateLimiter implements ExchangeFilterFunction {
+    private final double throttleThreshold;
+    private final Duration quarantineDuration;
+    private final List<TokenBudget> budgets;
+
+    public GitHubRateLimiter(@Value("${github.rate-limit.throttle-threshold:0.5}") double throttleThreshold,
+                             @Value("${github.api.tokens:}") List<String> tokens,
+                             @Value("${github.api.token-quarantine:15m}") Duration quarantineDuration) {
+        this.throttleThreshold = throttleThreshold;
+        this.quarantineDuration = quarantineDuration;
+
+        List<TokenBudget> budgets = new ArrayList<>();
+        for (String token : tokens) {
+            if (token != null && !token.isBlank()) {
+                budgets.add(new TokenBudget(String.valueOf(budgets.size() + 1), token.trim()));
+            }
+        }
+        if (budgets.isEmpty()) {
+            budgets.add(new TokenBudget("anonymous", null));
+        }
+        this.budgets = List.copyOf(budgets);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> exchange(request, next, new HashSet<>()));
+    }
+
+    public List<TokenBudget> tokenBudgets() {
+        return budgets;
+    }
+
+    public double concurrencyScale() {
+        long limit = limit();
+        if (limit <= 0 || throttleThreshold <= 0) {
+            return 1.0;
+        }
+        return Math.min(1.0, ((double) remaining() / limit) / throttleThreshold);
+    }
+
+    public long remaining() {
+        long remaining = -1;
+        for (TokenBudget budget : budgets) {
+            long budgetRemaining = budget.remaining();
+            if (budgetRemaining >= 0 && !budget.isQuarantined()) {
+                remaining = Math.max(remaining, 0) + budgetRemaining;
+            }
+        }
+        return remaining;
+    }
+
+    public long limit() {
+        long limit = -1;
+        for (TokenBudget budget : budgets) {
+            long budgetLimit = budget.limit();
+            if (budgetLimit >= 0 && !budget.isQuarantined()) {
+                limit = Math.max(limit, 0) + budgetLimit;
+            }
+        }
+        return limit;
+    }
+
+    public Instant resetAt() {
+        return budgets.stream()
+                .map(TokenBudget::resetAt)
+                .min(Comparator.naturalOrder())
+                .orElse(Instant.EPOCH);
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, Set<TokenBudget> tried) {
+        Instant now = Instant.now();
+        List<TokenBudget> candidates = candidates(tried, now);
+        Duration retryAfter = null;
+        for (TokenBudget budget : candidates) {
+            Duration wait = budget.tryAcquire(now);
+            if (wait == null) {
+                AtomicBoolean released = new AtomicBoolean();
+                Runnable release = () -> {
+                    if (released.compareAndSet(false, true)) {
+                        budget.release();
+                    }
+                };
+                return next.exchange(authorize(request, budget))
+                        .doOnError(e -> release.run())
+                        .doOnCancel(release)
+                        .flatMap(response -> {
+                            release.run();
+                            return onResponse(request, next, tried, budget, response);
+                        });
+            }
+            retryAfter = retryAfter == null || wait.compareTo(retryAfter) < 0 ? wait : retryAfter;
+        }
+        return Mono.error(new RateLimitExceededException("Rate limit exceeded",
+                retryAfter != null ? retryAfter : Duration.ZERO));
+    }
+
+    private Mono<ClientResponse> onResponse(ClientRequest request, ExchangeFunction next, Set<TokenBudget> tried,
+                                            TokenBudget budget, ClientResponse response) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        budget.update(response.statusCode(), headers);
+        if (budget.token() == null || !response.statusCode().isSameCodeAs(HttpStatus.UNAUTHORIZED)) {
+            return Mono.just(response);
+        }
+
+        budget.quarantine(quarantineDuration);
+        tried.add(budget);
+        if (candidates(tried, Instant.now()).isEmpty()) {
+            return Mono.just(response);
+        }
+        return response.releaseBody().then(Mono.defer(() -> exchange(request, next, tried)));
+    }
+
+    private List<TokenBudget> candidates(Set<TokenBudget> tried, Instant now) {
+        List<TokenBudget> healthy = budgets.stream()
+                .filter(budget -> !tried.contains(budget) && !budget.isQuarantined())
+                .sorted(Comparator.comparingLong((TokenBudget budget) -> budget.available(now)).reversed())
+                .toList();
+        if (!healthy.isEmpty() || !tried.isEmpty()) {
+            return healthy;
+        }
+
+        return budgets.stream()
+                .min(Comparator.comparing(TokenBudget::quarantinedUntil))
+                .stream()
+                .toList();
+    }
+
+    private static ClientRequest authorize(ClientRequest request, TokenBudget budget) {
+        if (budget.token() == null) {
+            return request;
+        }
+        return ClientRequest.from(request)
+                .headers(headers -> headers.setBearerAuth(budget.token()))
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.githubrepository.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public final class RateLimitHeaders {
+    public static final String LIMIT = "X-RateLimit-Limit";
+    public static final String REMAINING = "X-RateLimit-Remaining";
+    public static final String RESET = "X-RateLimit-Reset";
+
+    private RateLimitHeaders() { }
+
+    public static boolean isRateLimited(HttpStatusCode status, HttpHeaders headers) {
+        if (status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+            return true;
+        }
+        return status.isSameCodeAs(HttpStatus.FORBIDDEN)
+                && (headers.containsKey(HttpHeaders.RETRY_AFTER) || "0".equals(headers.getFirst(REMAINING)));
+    }
+
+    public static Duration retryAfter(HttpHeaders headers) {
+        long retryAfterSeconds = parseLong(headers.getFirst(HttpHeaders.RETRY_AFTER), -1);
+        if (retryAfterSeconds >= 0) {
+            return Duration.ofSeconds(retryAfterSeconds);
+        }
+
+        long resetEpochSeconds = parseLong(headers.getFirst(RESET), -1);
+        if (resetEpochSeconds >= 0) {
+            Duration untilReset = Duration.between(Instant.now(), Instant.ofEpochSecond(resetEpochSeconds));
+            return untilReset.isNegative() ? Duration.ZERO : untilReset;
+        }
+        return Duration.ZERO;
+    }
+
+    static long parseLong(String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.githubrepository.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TokenBudget {
+    private final String id;
+    private final String token;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder quarantines = new LongAdder();
+
+    private long limit = -1;
+    private long tokens;
+    private long inFlight;
+    private Instant resetAt = Instant.EPOCH;
+    private Instant blockedUntil = Instant.EPOCH;
+    private Instant quarantinedUntil = Instant.EPOCH;
+
+    TokenBudget(String id, String token) {
+        this.id = id;
+        this.token = token;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    String token() {
+        return token;
+    }
+
+    public synchronized long limit() {
+        return limit;
+    }
+
+    public synchronized long remaining() {
+        if (limit < 0) {
+            return -1;
+        }
+        return Instant.now().isBefore(resetAt) ? tokens : limit;
+    }
+
+    public synchronized Instant resetAt() {
+        return resetAt;
+    }
+
+    public synchronized boolean isQuarantined() {
+        return Instant.now().isBefore(quarantinedUntil);
+    }
+
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    public long quarantineCount() {
+        return quarantines.sum();
+    }
+
+    synchronized Instant quarantinedUntil() {
+        return quarantinedUntil;
+    }
+
+    synchronized long available(Instant now) {
+        if (now.isBefore(blockedUntil)) {
+            return 0;
+        }
+        if (limit < 0) {
+            return Long.MAX_VALUE;
+        }
+        return now.isBefore(resetAt) ? tokens : limit;
+    }
+
+    synchronized Duration tryAcquire(Instant now) {
+        if (now.isBefore(blockedUntil)) {
+            return Duration.between(now, blockedUntil);
+        }
+
+        if (limit >= 0) {
+            if (!now.isBefore(resetAt)) {
+                tokens = limit;
+            }
+
+            if (tokens <= 0) {
+                return Duration.between(now, resetAt);
+            }
+
+            tokens--;
+        }
+        inFlight++;
+        requests.increment();
+        return null;
+    }
+
+    synchronized long inFlight() {
+        return inFlight;
+    }
+
+    synchronized void release() {
+        inFlight = Math.max(0, inFlight - 1);
+    }
+
+    synchronized void update(HttpStatusCode status, HttpHeaders headers) {
+        long remaining = RateLimitHeaders.parseLong(headers.getFirst(RateLimitHeaders.REMAINING), -1);
+        long resetEpochSeconds = RateLimitHeaders.parseLong(headers.getFirst(RateLimitHeaders.RESET), -1);
+
+        if (remaining >= 0 && resetEpochSeconds >= 0) {
+            Instant reset = Instant.ofEpochSecond(resetEpochSeconds);
+            limit = RateLimitHeaders.parseLong(headers.getFirst(RateLimitHeaders.LIMIT), Math.max(limit, remaining));
+            tokens = Math.max(0, remaining - inFlight);
+            resetAt = reset;
+        } else if (status.isSameCodeAs(HttpStatus.NOT_MODIFIED) && limit >= 0 && Instant.now().isBefore(resetAt)) {
+            tokens = Math.min(limit, tokens + 1);
+        }
+
+        if (headers.containsKey(HttpHeaders.RETRY_AFTER) && RateLimitHeaders.isRateLimited(status, headers)) {
+            blockedUntil = Instant.now().plus(RateLimitHeaders.retryAfter(headers));
+        }
+    }
+
+    synchronized void quarantine(Duration duration) {
+        quarantinedUntil = Instant.now().plus(duration);
+        quarantines.increment();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.githubrepository.resilience;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final boolean[] outcomes;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private Instant openedAt = Instant.EPOCH;
+    private boolean trialCallInFlight;
+
+    public CircuitBreaker(double failureRateThreshold, int slidingWindowSize, int minimumCalls, Duration openDuration) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.openDuration = openDuration;
+        this.outcomes = new boolean[slidingWindowSize];
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && !Instant.now().isBefore(openedAt.plus(openDuration))) {
+            state = State.HALF_OPEN;
+            trialCallInFlight = false;
+        }
+
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialCallInFlight) {
+                    yield false;
+                }
+                trialCallInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            reset();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+
+        record(true);
+        if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialCallInFlight = false;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = Instant.now();
+        trialCallInFlight = false;
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        trialCallInFlight = false;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.githubrepository.resilience;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+public class LatencyTracker {
+    private final long[] samples;
+    private int recorded;
+    private int next;
+
+    public LatencyTracker(int windowSize) {
+        this.samples = new long[windowSize];
+    }
+
+    public synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        recorded = Math.min(recorded + 1, samples.length);
+    }
+
+    public synchronized int count() {
+        return recorded;
+    }
+
+    public Duration percentile(double percentile) {
+        long[] snapshot;
+        synchronized (this) {
+            if (recorded == 0) {
+                return Duration.ZERO;
+            }
+            snapshot = Arrays.copyOf(samples, recorded);
+        }
+
+        Arrays.sort(snapshot);
+        int index = (int) Math.ceil(percentile * snapshot.length) - 1;
+        return Duration.ofNanos(snapshot[Math.max(0, Math.min(index, snapshot.length - 1))]);
+    }
+}
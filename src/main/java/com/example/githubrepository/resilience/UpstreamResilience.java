@@ -0,0 +1,124 @@
+package com.example.githubrepository.resilience;
+
+import com.example.githubrepository.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Component
+public class UpstreamResilience {
+    private static final int LATENCY_WINDOW_SIZE = 1000;
+    private static final int MINIMUM_HEDGING_SAMPLES = 20;
+
+    private final Duration callTimeout;
+    private final int maxRetries;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final boolean hedgingEnabled;
+    private final double hedgingPercentile;
+    private final Duration hedgingMinDelay;
+    private final double failureRateThreshold;
+    private final int slidingWindowSize;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyTracker> latencyTrackers = new ConcurrentHashMap<>();
+
+    public UpstreamResilience(@Value("${github.resilience.call-timeout:5s}") Duration callTimeout,
+                              @Value("${github.resilience.retry.max-retries:2}") int maxRetries,
+                              @Value("${github.resilience.retry.min-backoff:100ms}") Duration minBackoff,
+                              @Value("${github.resilience.retry.max-backoff:2s}") Duration maxBackoff,
+                              @Value("${github.resilience.hedging.enabled:false}") boolean hedgingEnabled,
+                              @Value("${github.resilience.hedging.percentile:0.95}") double hedgingPercentile,
+                              @Value("${github.resilience.hedging.min-delay:50ms}") Duration hedgingMinDelay,
+                              @Value("${github.resilience.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                              @Value("${github.resilience.circuit-breaker.sliding-window-size:50}") int slidingWindowSize,
+                              @Value("${github.resilience.circuit-breaker.minimum-calls:20}") int minimumCalls,
+                              @Value("${github.resilience.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        this.callTimeout = callTimeout;
+        this.maxRetries = maxRetries;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgingPercentile = hedgingPercentile;
+        this.hedgingMinDelay = hedgingMinDelay;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slidingWindowSize = slidingWindowSize;
+        this.minimumCalls = minimumCalls;
+        this.openDuration = openDuration;
+    }
+
+    public <T> Mono<T> decorate(String endpoint, Supplier<Mono<T>> call) {
+        CircuitBreaker circuitBreaker = circuitBreaker(endpoint);
+        LatencyTracker latencyTracker = latencyTracker(endpoint);
+
+        Mono<T> attempt = Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.get()
+                    .timeout(callTimeout)
+                    .doOnSuccess(value -> latencyTracker.record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+
+        return Mono.defer(() -> {
+                    if (!circuitBreaker.tryAcquire()) {
+                        return Mono.error(new ServiceUnavailableException("Service unavailable"));
+                    }
+
+                    return hedge(attempt, latencyTracker)
+                            .doOnSuccess(value -> circuitBreaker.onSuccess())
+                            .doOnError(error -> {
+                                if (isTransient(error)) {
+                                    circuitBreaker.onFailure();
+                                } else {
+                                    circuitBreaker.onSuccess();
+                                }
+                            })
+                            .doOnCancel(circuitBreaker::onIgnored);
+                })
+                .retryWhen(Retry.backoff(maxRetries, minBackoff)
+                        .maxBackoff(maxBackoff)
+                        .jitter(0.5)
+                        .filter(UpstreamResilience::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    public CircuitBreaker.State circuitBreakerState(String endpoint) {
+        return circuitBreaker(endpoint).state();
+    }
+
+    public static boolean isTransient(Throwable error) {
+        return error instanceof TimeoutException
+                || error instanceof WebClientRequestException
+                || (error instanceof WebClientResponseException e && e.getStatusCode().is5xxServerError());
+    }
+
+    private <T> Mono<T> hedge(Mono<T> attempt, LatencyTracker latencyTracker) {
+        if (!hedgingEnabled || latencyTracker.count() < MINIMUM_HEDGING_SAMPLES) {
+            return attempt;
+        }
+
+        Duration hedgingDelay = latencyTracker.percentile(hedgingPercentile);
+        if (hedgingDelay.compareTo(hedgingMinDelay) < 0) {
+            hedgingDelay = hedgingMinDelay;
+        }
+        return Mono.firstWithSignal(attempt, Mono.delay(hedgingDelay).then(attempt));
+    }
+
+    private CircuitBreaker circuitBreaker(String endpoint) {
+        return circuitBreakers.computeIfAbsent(endpoint, key ->
+                new CircuitBreaker(failureRateThreshold, slidingWindowSize, minimumCalls, openDuration));
+    }
+
+    private LatencyTracker latencyTracker(String endpoint) {
+        return latencyTrackers.computeIfAbsent(endpoint, key -> new LatencyTracker(LATENCY_WINDOW_SIZE));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.githubrepository.service;
+
+import com.example.githubrepository.concurrency.PermitPool;
+import com.example.githubrepository.concurrency.Priority;
+import com.example.githubrepository.exception.OverloadedException;
+import com.example.githubrepository.metrics.GitHubMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class AdmissionControl {
+    private final PermitPool permits;
+    private final Duration retryAfter;
+    private final GitHubMetrics gitHubMetrics;
+
+    public AdmissionControl(@Value("${github.admission.max-concurrent-requests:256}") int maxConcurrentRequests,
+                            @Value("${github.admission.max-queued-requests:512}") int maxQueuedRequests,
+                            @Value("${github.admission.max-queue-wait:2s}") Duration maxQueueWait,
+                            @Value("${github.admission.batch-share:0.25}") double batchShare,
+                            @Value("${github.admission.retry-after:1s}") Duration retryAfter,
+                            GitHubMetrics gitHubMetrics) {
+        this.permits = new PermitPool(() -> maxConcurrentRequests, batchShare, maxQueuedRequests, maxQueueWait);
+        this.retryAfter = retryAfter;
+        this.gitHubMetrics = gitHubMetrics;
+        gitHubMetrics.registerAdmissionQueue(permits);
+    }
+
+    public <T> Mono<T> admit(Mono<T> request, Priority priority) {
+        return admit(request.flux(), priority).singleOrEmpty();
+    }
+
+    public <T> Flux<T> admit(Flux<T> request, Priority priority) {
+        return Flux.defer(() -> {
+            AtomicBoolean admitted = new AtomicBoolean();
+            return permits.withPermit(Flux.defer(() -> {
+                        admitted.set(true);
+                        gitHubMetrics.recordAdmission("admitted");
+                        return request;
+                    }), priority)
+                    .onErrorMap(e -> e instanceof RejectedExecutionException && !admitted.get(), e -> {
+                        gitHubMetrics.recordAdmission("rejected");
+                        return new OverloadedException("Service overloaded, retry later", retryAfter);
+                    })
+                    .doOnCancel(() -> gitHubMetrics.recordAdmission("cancelled"));
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.githubrepository.service;
+
+import com.example.githubrepository.concurrency.PermitPool;
+import com.example.githubrepository.concurrency.Priority;
+import com.example.githubrepository.ratelimit.GitHubRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+@Component
+public class BranchFanOutScheduler {
+    private final int perRequestConcurrency;
+    private final FanOutOrder order;
+    private final PermitPool inFlightCalls;
+
+    public BranchFanOutScheduler(@Value("${github.fan-out.per-request-concurrency:8}") int perRequestConcurrency,
+                                 @Value("${github.fan-out.max-in-flight:64}") int maxInFlight,
+                                 @Value("${github.fan-out.order:FASTEST_FIRST}") FanOutOrder order,
+                                 @Value("${github.fan-out.batch-share:0.5}") double batchShare,
+                                 GitHubRateLimiter rateLimiter) {
+        this.perRequestConcurrency = perRequestConcurrency;
+        this.order = order;
+        this.inFlightCalls = new PermitPool(() -> (int) Math.ceil(maxInFlight * rateLimiter.concurrencyScale()), batchShare);
+    }
+
+    public <T, R> Flux<R> fanOut(Flux<T> source, Function<T, Mono<R>> call) {
+        Function<T, Mono<R>> limitedCall = item -> Mono.deferContextual(context ->
+                inFlightCalls.withPermit(Mono.defer(() -> call.apply(item)), Priority.from(context)));
+
+        return switch (order) {
+            case FASTEST_FIRST -> source.flatMap(limitedCall, perRequestConcurrency);
+            case STABLE -> source.flatMapSequential(limitedCall, perRequestConcurrency);
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.githubrepository.service;
+
+public enum FanOutOrder {
+    FASTEST_FIRST,
+    STABLE
+}
@@ -0,0 +1,62 @@
+package com.example.githubrepository.service;
+
+import com.example.githubrepository.concurrency.Priority;
+import com.example.githubrepository.dto.UserRepositoriesResult;
+import com.example.githubrepository.exception.BadRequestException;
+import com.example.githubrepository.exception.ErrorResponseMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+public class GitHubBatchService {
+    private final GitHubRepositoryService gitHubRepositoryService;
+    private final int userConcurrency;
+    private final int maxUsernames;
+
+    public GitHubBatchService(GitHubRepositoryService gitHubRepositoryService,
+                              @Value("${github.batch.user-concurrency:8}") int userConcurrency,
+                              @Value("${github.batch.max-usernames:50000}") int maxUsernames) {
+        this.gitHubRepositoryService = gitHubRepositoryService;
+        this.userConcurrency = userConcurrency;
+        this.maxUsernames = maxUsernames;
+    }
+
+    public Flux<UserRepositoriesResult> getUserRepositories(List<String> usernames) {
+        return Flux.defer(() -> {
+            if (usernames == null || usernames.isEmpty()) {
+                return Flux.error(new BadRequestException("Usernames must not be empty"));
+            }
+            if (usernames.size() > maxUsernames) {
+                return Flux.error(new BadRequestException("At most " + maxUsernames + " usernames are allowed per batch"));
+            }
+
+            return Flux.fromIterable(distinct(usernames))
+                    .flatMap(this::getUserRepositories, userConcurrency)
+                    .contextWrite(context -> context.put(Priority.CONTEXT_KEY, Priority.BATCH));
+        });
+    }
+
+    private Mono<UserRepositoriesResult> getUserRepositories(String username) {
+        return gitHubRepositoryService.getUserRepositories(username)
+                .map(repositories -> new UserRepositoriesResult(username, repositories.repositories(), null, null))
+                .onErrorResume(e -> Mono.just(new UserRepositoriesResult(username, null,
+                        ErrorResponseMapper.toErrorResponse(e), ErrorResponseMapper.retryAfterSeconds(e))));
+    }
+
+    private static List<String> distinct(List<String> usernames) {
+        Map<String, String> distinct = new LinkedHashMap<>();
+        for (String username : usernames) {
+            if (username != null && !username.isBlank()) {
+                distinct.putIfAbsent(username.trim().toLowerCase(Locale.ROOT), username.trim());
+            }
+        }
+        return List.copyOf(distinct.values());
+    }
+}
@@ -1,39 +1,411 @@
 package com.example.githubrepository.service;
 
 import com.example.githubrepository.adapter.GitHubRepositoryAdapter;
+import com.example.githubrepository.cache.BranchSnapshotCache;
+import com.example.githubrepository.cache.NegativeCache;
+import com.example.githubrepository.cache.UserRepositoriesCache;
+import com.example.githubrepository.concurrency.Priority;
+import com.example.githubrepository.concurrency.SingleFlight;
 import com.example.githubrepository.dto.RepositoryDto;
 import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.example.githubrepository.dto.RepositoryStatus;
+import com.example.githubrepository.exception.BranchNotFoundException;
+import com.example.githubrepository.exception.BranchRetrievalException;
+import com.example.githubrepository.exception.UserNotFoundException;
+import com.example.githubrepository.metrics.GitHubMetrics;
 import com.example.githubrepository.model.Branch;
 import com.example.githubrepository.model.Repository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.ContextView;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 @Service
 public class GitHubRepositoryService {
     private final GitHubRepositoryAdapter gitHubRepositoryAdapter;
+    private final BranchFanOutScheduler branchFanOutScheduler;
+    private final GitHubMetrics gitHubMetrics;
+    private final UserRepositoriesCache userRepositoriesCache;
+    private final BranchSnapshotCache branchSnapshotCache;
+    private final NegativeCache negativeCache;
+    private final Duration defaultLatencyBudget;
+    private final SingleFlight<String, RepositoryDtoArray> userRepositoriesFlight = new SingleFlight<>();
+    private final SingleFlight<String, List<Branch>> branchesFlight = new SingleFlight<>();
+    private final ConcurrentMap<String, SharedListing> budgetedListings = new ConcurrentHashMap<>();
 
-    public GitHubRepositoryService(GitHubRepositoryAdapter gitHubRepositoryAdapter) {
+    public GitHubRepositoryService(GitHubRepositoryAdapter gitHubRepositoryAdapter,
+                                   BranchFanOutScheduler branchFanOutScheduler,
+                                   GitHubMetrics gitHubMetrics,
+                                   UserRepositoriesCache userRepositoriesCache,
+                                   BranchSnapshotCache branchSnapshotCache,
+                                   NegativeCache negativeCache,
+                                   @Value("${github.latency-budget.default:#{null}}") Duration defaultLatencyBudget) {
         this.gitHubRepositoryAdapter = gitHubRepositoryAdapter;
+        this.branchFanOutScheduler = branchFanOutScheduler;
+        this.gitHubMetrics = gitHubMetrics;
+        this.userRepositoriesCache = userRepositoriesCache;
+        this.branchSnapshotCache = branchSnapshotCache;
+        this.negativeCache = negativeCache;
+        this.defaultLatencyBudget = defaultLatencyBudget;
     }
 
     public Mono<RepositoryDtoArray> getUserRepositories(String username) {
-        return gitHubRepositoryAdapter.getUserRepositories(username)
-                .filter(repository -> !repository.fork())
-                .flatMap(repository -> getBranches(username, repository.name())
+        return getUserRepositories(username, null);
+    }
+
+    public Mono<RepositoryDtoArray> getUserRepositories(String username, Duration latencyBudget) {
+        return getUserRepositories(username, latencyBudget, RepositoryQuery.ALL);
+    }
+
+    public Mono<RepositoryDtoArray> getUserRepositories(String username, Duration latencyBudget, RepositoryQuery query) {
+        if (!query.isAll()) {
+            return streamUserRepositories(username, latencyBudget, query)
+                    .collectList()
+                    .map(RepositoryDtoArray::new);
+        }
+
+        return Mono.defer(() -> cachedUserRepositories(username)
+                .map(Mono::just)
+                .orElseGet(() -> loadUserRepositories(username, latencyBudget)));
+    }
+
+    public Mono<RepositoryDtoArray> refreshUserRepositories(String username) {
+        return fetchUserRepositories(username)
+                .contextWrite(context -> context.put(Priority.CONTEXT_KEY, Priority.BATCH));
+    }
+
+    private Optional<RepositoryDtoArray> cachedUserRepositories(String username) {
+        return userRepositoriesCache.get(username)
+                .map(cached -> {
+                    if (userRepositoriesCache.isStale(cached)) {
+                        refreshInBackground(username);
+                    }
+                    return cached.repositories();
+                });
+    }
+
+    private void refreshInBackground(String username) {
+        refreshUserRepositories(username).subscribe(repositories -> { }, error -> { });
+    }
+
+    private Mono<RepositoryDtoArray> loadUserRepositories(String username, Duration latencyBudget) {
+        Duration budget = latencyBudget != null ? latencyBudget : defaultLatencyBudget;
+        if (budget != null) {
+            return Mono.defer(() -> {
+                BudgetedListing listing = new BudgetedListing();
+                return streamUserRepositoriesWithinBudget(username, budget, RepositoryQuery.ALL, listing)
                         .collectList()
-                        .map(branches -> toRepositoryDto(repository, branches)))
+                        .map(RepositoryDtoArray::new)
+                        .doOnNext(repositories -> {
+                            if (listing.isCompleteWithinBudget() && repositories.repositories().stream()
+                                    .allMatch(repository -> repository.status() == RepositoryStatus.COMPLETE)) {
+                                userRepositoriesCache.put(username, repositories);
+                            }
+                        });
+            });
+        }
+
+        return fetchUserRepositories(username);
+    }
+
+    private Mono<RepositoryDtoArray> fetchUserRepositories(String username) {
+        return userRepositoriesFlight.execute(username.toLowerCase(Locale.ROOT), () -> fanOutRepositories(
+                        username, RepositoryQuery.ALL, UnaryOperator.identity(), false)
                 .collectList()
-                .map(RepositoryDtoArray::new);
+                .map(RepositoryDtoArray::new)
+                .doOnNext(repositories -> userRepositoriesCache.put(username, repositories)));
     }
 
-    private Flux<Branch> getBranches(String username, String repositoryName) {
-        return gitHubRepositoryAdapter.getBranches(username, repositoryName);
+    public Flux<RepositoryDto> streamUserRepositories(String username) {
+        return streamUserRepositories(username, null);
     }
 
-    private RepositoryDto toRepositoryDto(Repository repository, List<Branch> branches) {
-        return new RepositoryDto(repository.name(), repository.owner(), branches, repository.fork());
+    public Flux<RepositoryDto> streamUserRepositories(String username, Duration latencyBudget) {
+        return streamUserRepositories(username, latencyBudget, RepositoryQuery.ALL);
+    }
+
+    public Flux<RepositoryDto> streamUserRepositories(String username, Duration latencyBudget, RepositoryQuery query) {
+        return Flux.defer(() -> {
+            if (query.since() == null && !query.isAll()) {
+                Optional<RepositoryDtoArray> cached = cachedUserRepositories(username);
+                if (cached.isPresent()) {
+                    return Flux.fromIterable(cached.get().repositories())
+                            .filter(query::matchesName)
+                            .map(query::project);
+                }
+            }
+
+            Duration budget = latencyBudget != null ? latencyBudget : defaultLatencyBudget;
+            Flux<RepositoryDto> repositories = budget != null && query.fetchesBranches()
+                    ? streamUserRepositoriesWithinBudget(username, budget, query, new BudgetedListing())
+                    : fanOutRepositories(username, query, UnaryOperator.identity(), false);
+            return repositories.map(query::project);
+        });
+    }
+
+    private Flux<RepositoryDto> streamUserRepositoriesWithinBudget(String username, Duration budget,
+                                                                   RepositoryQuery query, BudgetedListing listing) {
+        return Flux.deferContextual(context -> {
+            SharedListing shared = joinListing(username, query, context);
+            Disposable observed = shared.listed().subscribe(listing::listed, listing::failed, listing::completed);
+
+            return shared.results()
+                    .take(budget)
+                    .doOnNext(listing::delivered)
+                    .concatWith(Flux.defer(listing::expire)
+                            .map(repository -> toRepositoryDto(repository, List.of(), RepositoryStatus.TIMED_OUT)))
+                    .doFinally(signal -> {
+                        observed.dispose();
+                        shared.leave(signal == SignalType.CANCEL);
+                    });
+        });
+    }
+
+    private SharedListing joinListing(String username, RepositoryQuery query, ContextView context) {
+        String key = listingKey(username, query);
+        AtomicReference<SharedListing> created = new AtomicReference<>();
+        SharedListing shared = budgetedListings.compute(key, (k, existing) -> {
+            if (existing != null && existing.join()) {
+                return existing;
+            }
+            created.set(new SharedListing());
+            created.get().join();
+            return created.get();
+        });
+
+        if (shared == created.get()) {
+            shared.start(fanOutRepositories(username, query, shared::observe, true)
+                    .doFinally(signal -> budgetedListings.remove(key, shared))
+                    .contextWrite(context));
+        }
+        return shared;
+    }
+
+    private static String listingKey(String username, RepositoryQuery query) {
+        return username.toLowerCase(Locale.ROOT)
+                + "?since=" + query.since()
+                + "&name=" + (query.namePattern() != null ? query.namePattern().pattern() : null)
+                + "&maxBranches=" + query.maxBranches();
+    }
+
+    private Flux<RepositoryDto> fanOutRepositories(String username, RepositoryQuery query,
+                                                   UnaryOperator<Flux<Repository>> observeListing,
+                                                   boolean tolerateBranchFailures) {
+        return Flux.defer(() -> {
+            AtomicInteger repositoryCount = new AtomicInteger();
+            AtomicInteger branchCalls = new AtomicInteger();
+
+            Flux<Repository> repositories = getRepositories(username, query.branchLimit())
+                    .filter(repository -> !repository.fork() && query.matches(repository));
+
+            if (!query.fetchesBranches()) {
+                return repositories
+                        .doOnNext(repository -> repositoryCount.incrementAndGet())
+                        .map(repository -> toRepositoryDto(repository, null, RepositoryStatus.COMPLETE))
+                        .doOnComplete(() -> gitHubMetrics.recordFanOut(0, repositoryCount.get()));
+            }
+
+            repositories = repositories
+                    .map(repository -> withKnownBranches(username, repository))
+                    .doOnNext(repository -> {
+                        repositoryCount.incrementAndGet();
+                        if (repository.branches() == null) {
+                            branchCalls.incrementAndGet();
+                        }
+                    });
+            repositories = observeListing.apply(repositories);
+
+            return branchFanOutScheduler.fanOut(repositories, repository -> {
+                        Mono<RepositoryDto> repositoryDto = getBranches(username, repository, query.maxBranches())
+                                .map(branches -> toRepositoryDto(repository, branches, RepositoryStatus.COMPLETE));
+                        return tolerateBranchFailures
+                                ? repositoryDto.onErrorResume(BranchRetrievalException.class, e ->
+                                        Mono.just(toRepositoryDto(repository, List.of(), RepositoryStatus.FAILED)))
+                                : repositoryDto;
+                    })
+                    .doOnComplete(() -> gitHubMetrics.recordFanOut(branchCalls.get(), repositoryCount.get()));
+        });
+    }
+
+    private Repository withKnownBranches(String username, Repository repository) {
+        if (repository.branches() != null) {
+            return repository;
+        }
+        return branchSnapshotCache.get(ownerOf(username, repository), repository.name(), repository.pushedAt())
+                .map(repository::withBranches)
+                .orElse(repository);
+    }
+
+    private Mono<List<Branch>> getBranches(String username, Repository repository, Integer maxBranches) {
+        if (repository.branches() != null) {
+            return Mono.just(repository.branches());
+        }
+        String owner = ownerOf(username, repository);
+        Mono<List<Branch>> branches = getBranches(owner, repository.name(), maxBranches);
+        return maxBranches != null
+                ? branches
+                : branches.doOnNext(listed -> branchSnapshotCache.put(owner, repository.name(), repository.pushedAt(), listed));
+    }
+
+    private static String ownerOf(String username, Repository repository) {
+        return repository.owner() != null && repository.owner().login() != null
+                ? repository.owner().login()
+                : username;
+    }
+
+    private Mono<List<Branch>> getBranches(String owner, String repositoryName, Integer maxBranches) {
+        String key = (owner + "/" + repositoryName).toLowerCase(Locale.ROOT);
+        if (maxBranches == null) {
+            return branchesFlight.execute(key, () -> listBranches(owner, repositoryName).collectList());
+        }
+        return branchesFlight.execute(key + "?maxBranches=" + maxBranches, () -> listBranches(owner, repositoryName)
+                .take(maxBranches)
+                .collectList());
+    }
+
+    private Flux<Repository> getRepositories(String username, Integer branchLimit) {
+        return Flux.defer(() -> negativeCache.isMissingUser(username)
+                ? Flux.error(UserNotFoundException.USER_NOT_FOUND)
+                : gitHubRepositoryAdapter.getUserRepositories(username, branchLimit)
+                        .doOnError(UserNotFoundException.class, e -> negativeCache.recordMissingUser(username)));
+    }
+
+    private Flux<Branch> listBranches(String owner, String repositoryName) {
+        return Flux.defer(() -> negativeCache.isMissingRepository(owner, repositoryName)
+                ? Flux.error(new BranchNotFoundException("Failed to retrieve branches for repository: " + repositoryName))
+                : gitHubRepositoryAdapter.getBranches(owner, repositoryName)
+                        .doOnError(BranchNotFoundException.class,
+                                e -> negativeCache.recordMissingRepository(owner, repositoryName)));
+    }
+
+    private RepositoryDto toRepositoryDto(Repository repository, List<Branch> branches, RepositoryStatus status) {
+        if (status != RepositoryStatus.COMPLETE) {
+            gitHubMetrics.recordIncompleteRepository(status);
+        }
+        return new RepositoryDto(repository.name(), repository.owner(), branches, repository.fork(), status);
+    }
+
+    private static final class SharedListing {
+        private final Sinks.Many<Repository> listed = Sinks.many().replay().all();
+        private final Sinks.Many<RepositoryDto> results = Sinks.many().replay().all();
+        private final Disposable.Swap fanOut = Disposables.swap();
+        private int subscribers;
+        private boolean abandoned;
+
+        Flux<Repository> observe(Flux<Repository> repositories) {
+            return repositories
+                    .doOnNext(listed::tryEmitNext)
+                    .doOnComplete(listed::tryEmitComplete)
+                    .doOnError(listed::tryEmitError);
+        }
+
+        void start(Flux<RepositoryDto> repositories) {
+            fanOut.update(repositories.subscribe(results::tryEmitNext, results::tryEmitError, results::tryEmitComplete));
+        }
+
+        Flux<Repository> listed() {
+            return listed.asFlux();
+        }
+
+        Flux<RepositoryDto> results() {
+            return results.asFlux();
+        }
+
+        synchronized boolean join() {
+            if (abandoned) {
+                return false;
+            }
+            subscribers++;
+            return true;
+        }
+
+        void leave(boolean cancelled) {
+            synchronized (this) {
+                subscribers--;
+                if (!cancelled || subscribers > 0) {
+                    return;
+                }
+                abandoned = true;
+            }
+            fanOut.dispose();
+        }
+    }
+
+    private static final class BudgetedListing {
+        private final Map<String, Repository> pending = new LinkedHashMap<>();
+        private final Set<String> deliveredBeforeListed = new HashSet<>();
+        private final Sinks.Many<Repository> lateRepositories = Sinks.many().unicast().onBackpressureBuffer();
+        private boolean expired;
+        private boolean complete;
+        private boolean completeWithinBudget;
+        private Throwable error;
+
+        synchronized void delivered(RepositoryDto repository) {
+            if (pending.remove(repository.name()) == null) {
+                deliveredBeforeListed.add(repository.name());
+            }
+        }
+
+        synchronized boolean isCompleteWithinBudget() {
+            return completeWithinBudget;
+        }
+
+        synchronized Flux<Repository> expire() {
+            expired = true;
+            List<Repository> timedOut = new ArrayList<>(pending.values());
+            pending.clear();
+            if (complete) {
+                lateRepositories.tryEmitComplete();
+            } else if (error != null) {
+                lateRepositories.tryEmitError(error);
+            }
+            return Flux.fromIterable(timedOut).concatWith(lateRepositories.asFlux());
+        }
+
+        synchronized void listed(Repository repository) {
+            if (deliveredBeforeListed.remove(repository.name())) {
+                return;
+            }
+            if (expired) {
+                lateRepositories.tryEmitNext(repository);
+            } else {
+                pending.put(repository.name(), repository);
+            }
+        }
+
+        synchronized void completed() {
+            complete = true;
+            completeWithinBudget = !expired;
+            if (expired) {
+                lateRepositories.tryEmitComplete();
+            }
+        }
+
+        synchronized void failed(Throwable e) {
+            error = e;
+            if (expired) {
+                lateRepositories.tryEmitError(e);
+            }
+        }
     }
 }
@@ -0,0 +1,268 @@
+package com.example.githubrepository.service;
+
+import com.example.githubrepository.cache.BranchSnapshotCache;
+import com.example.githubrepository.cache.NegativeCache;
+import com.example.githubrepository.cache.UserRepositoriesCache;
+import com.example.githubrepository.dto.RepositoryDto;
+import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.example.githubrepository.exception.AccessDeniedException;
+import com.example.githubrepository.exception.BadRequestException;
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Commit;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+@Service
+public class GitHubWebhookService {
+    public static final String APPLIED = "applied";
+    public static final String IGNORED = "ignored";
+
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    private static final String BRANCH_REF_PREFIX = "refs/heads/";
+
+    private final byte[] secret;
+    private final ObjectMapper objectMapper;
+    private final UserRepositoriesCache userRepositoriesCache;
+    private final BranchSnapshotCache branchSnapshotCache;
+    private final NegativeCache negativeCache;
+
+    public GitHubWebhookService(@Value("${github.webhook.secret:}") String secret,
+                                ObjectMapper objectMapper,
+                                UserRepositoriesCache userRepositoriesCache,
+                                BranchSnapshotCache branchSnapshotCache,
+                                NegativeCache negativeCache) {
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.objectMapper = objectMapper;
+        this.userRepositoriesCache = userRepositoriesCache;
+        this.branchSnapshotCache = branchSnapshotCache;
+        this.negativeCache = negativeCache;
+    }
+
+    public String handle(String event, String signature, byte[] payload) {
+        verifySignature(signature, payload);
+
+        JsonNode root = parse(payload);
+        JsonNode repository = root.path("repository");
+        String owner = text(repository.path("owner").path("login"), repository.path("owner").path("name"));
+        String repositoryName = text(repository.path("name"));
+        if (event == null || owner == null || repositoryName == null || repository.path("fork").asBoolean()) {
+            return IGNORED;
+        }
+
+        return switch (event) {
+            case "push" -> onPush(root, owner, repositoryName, pushedAt(repository.path("pushed_at")));
+            case "create" -> isBranch(root)
+                    ? patchBranches(owner, repositoryName, null, branches -> hasBranch(branches, text(root.path("ref")))
+                            ? branches
+                            : null)
+                    : IGNORED;
+            case "delete" -> isBranch(root)
+                    ? patchBranches(owner, repositoryName, null, branches -> withoutBranch(branches, text(root.path("ref"))))
+                    : IGNORED;
+            case "repository" -> onRepository(root, owner, repositoryName);
+            default -> IGNORED;
+        };
+    }
+
+    private String onPush(JsonNode root, String owner, String repositoryName, Instant pushedAt) {
+        String ref = text(root.path("ref"));
+        if (ref == null || !ref.startsWith(BRANCH_REF_PREFIX)) {
+            return IGNORED;
+        }
+
+        String branchName = ref.substring(BRANCH_REF_PREFIX.length());
+        if (root.path("deleted").asBoolean()) {
+            return patchBranches(owner, repositoryName, pushedAt, branches -> withoutBranch(branches, branchName));
+        }
+
+        String sha = text(root.path("after"));
+        return patchBranches(owner, repositoryName, pushedAt, branches -> withBranch(branches, branchName, sha));
+    }
+
+    private String onRepository(JsonNode root, String owner, String repositoryName) {
+        String action = text(root.path("action"));
+        if (action == null) {
+            return IGNORED;
+        }
+
+        switch (action) {
+            case "created" -> {
+                negativeCache.forgetUser(owner);
+                negativeCache.forgetRepository(owner, repositoryName);
+                userRepositoriesCache.invalidate(owner);
+            }
+            case "deleted" -> {
+                branchSnapshotCache.invalidate(owner, repositoryName);
+                userRepositoriesCache.update(owner, repositories -> withoutRepository(repositories, repositoryName));
+            }
+            case "renamed" -> {
+                String previousName = text(root.path("changes").path("repository").path("name").path("from"));
+                if (previousName == null) {
+                    userRepositoriesCache.invalidate(owner);
+                    return APPLIED;
+                }
+                branchSnapshotCache.invalidate(owner, previousName);
+                negativeCache.forgetRepository(owner, repositoryName);
+                userRepositoriesCache.update(owner, repositories -> patchRepository(repositories, previousName,
+                        repository -> new RepositoryDto(repositoryName, repository.owner(), repository.branches(),
+                                repository.fork(), repository.status())));
+            }
+            case "transferred" -> {
+                String previousOwner = text(root.path("changes").path("owner").path("from").path("user").path("login"),
+                        root.path("changes").path("owner").path("from").path("organization").path("login"));
+                if (previousOwner != null) {
+                    branchSnapshotCache.invalidate(previousOwner, repositoryName);
+                    userRepositoriesCache.invalidate(previousOwner);
+                }
+                negativeCache.forgetRepository(owner, repositoryName);
+                userRepositoriesCache.invalidate(owner);
+            }
+            case "publicized", "privatized" -> userRepositoriesCache.invalidate(owner);
+            default -> {
+                return IGNORED;
+            }
+        }
+        return APPLIED;
+    }
+
+    private String patchBranches(String owner, String repositoryName, Instant pushedAt,
+                                 UnaryOperator<List<Branch>> patch) {
+        boolean snapshotPatched = branchSnapshotCache.update(owner, repositoryName, pushedAt, patch);
+        boolean resultPatched = userRepositoriesCache.update(owner, repositories ->
+                patchRepository(repositories, repositoryName, repository -> {
+                    List<Branch> branches = repository.branches() != null ? patch.apply(repository.branches()) : null;
+                    return branches == null
+                            ? null
+                            : new RepositoryDto(repository.name(), repository.owner(), branches, repository.fork(),
+                                    repository.status());
+                }));
+        return snapshotPatched || resultPatched ? APPLIED : IGNORED;
+    }
+
+    private static RepositoryDtoArray patchRepository(RepositoryDtoArray repositories, String repositoryName,
+                                                      UnaryOperator<RepositoryDto> patch) {
+        List<RepositoryDto> patched = new ArrayList<>(repositories.repositories().size());
+        boolean found = false;
+        for (RepositoryDto repository : repositories.repositories()) {
+            if (!found && repository.name().equalsIgnoreCase(repositoryName)) {
+                found = true;
+                RepositoryDto patchedRepository = patch.apply(repository);
+                if (patchedRepository == null) {
+                    return null;
+                }
+                patched.add(patchedRepository);
+            } else {
+                patched.add(repository);
+            }
+        }
+        return found ? new RepositoryDtoArray(patched) : null;
+    }
+
+    private static RepositoryDtoArray withoutRepository(RepositoryDtoArray repositories, String repositoryName) {
+        return new RepositoryDtoArray(repositories.repositories().stream()
+                .filter(repository -> !repository.name().equalsIgnoreCase(repositoryName))
+                .toList());
+    }
+
+    private static List<Branch> withBranch(List<Branch> branches, String branchName, String sha) {
+        if (sha == null) {
+            return null;
+        }
+
+        List<Branch> patched = new ArrayList<>(branches.size() + 1);
+        boolean found = false;
+        for (Branch branch : branches) {
+            if (branch.name().equals(branchName)) {
+                found = true;
+                patched.add(new Branch(branchName, new Commit(sha)));
+            } else {
+                patched.add(branch);
+            }
+        }
+        if (!found) {
+            patched.add(new Branch(branchName, new Commit(sha)));
+        }
+        return patched;
+    }
+
+    private static List<Branch> withoutBranch(List<Branch> branches, String branchName) {
+        return branches.stream()
+                .filter(branch -> !branch.name().equals(branchName))
+                .toList();
+    }
+
+    private static boolean hasBranch(List<Branch> branches, String branchName) {
+        return branches.stream().anyMatch(branch -> branch.name().equals(branchName));
+    }
+
+    private static boolean isBranch(JsonNode root) {
+        return "branch".equals(text(root.path("ref_type"))) && text(root.path("ref")) != null;
+    }
+
+    private void verifySignature(String signature, byte[] payload) {
+        if (secret.length == 0) {
+            throw new AccessDeniedException("Webhook secret is not configured");
+        }
+        if (signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+            throw new AccessDeniedException("Missing webhook signature");
+        }
+
+        byte[] expected;
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            expected = HexFormat.of().formatHex(mac.doFinal(payload)).getBytes(StandardCharsets.US_ASCII);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+
+        byte[] provided = signature.substring(SIGNATURE_PREFIX.length()).toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, provided)) {
+            throw new AccessDeniedException("Invalid webhook signature");
+        }
+    }
+
+    private JsonNode parse(byte[] payload) {
+        try {
+            return objectMapper.readTree(payload);
+        } catch (IOException e) {
+            throw new BadRequestException("Malformed webhook payload");
+        }
+    }
+
+    private static Instant pushedAt(JsonNode pushedAt) {
+        if (pushedAt.isNumber()) {
+            return Instant.ofEpochSecond(pushedAt.asLong());
+        }
+        try {
+            return pushedAt.isTextual() ? Instant.parse(pushedAt.asText()) : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String text(JsonNode node) {
+        return node.isTextual() && !node.asText().isEmpty() ? node.asText() : null;
+    }
+
+    private static String text(JsonNode node, JsonNode fallback) {
+        String text = text(node);
+        return text != null ? text : text(fallback);
+    }
+}
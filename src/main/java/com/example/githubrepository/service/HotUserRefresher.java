@@ -0,0 +1,90 @@
+package com.example.githubrepository.service;
+
+import com.example.githubrepository.cache.UserRepositoriesCache;
+import com.example.githubrepository.cache.UserRepositoriesCache.CachedRepositories;
+import com.example.githubrepository.metrics.GitHubMetrics;
+import com.example.githubrepository.ratelimit.GitHubRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Component
+@ConditionalOnProperty(name = "github.cache.result.refresh.enabled", havingValue = "true", matchIfMissing = true)
+@Lazy(false)
+public class HotUserRefresher {
+    private static final String INTERVAL_MILLIS = "#{T(org.springframework.boot.convert.DurationStyle)"
+            + ".detectAndParse('${github.cache.result.refresh.interval:30s}').toMillis()}";
+
+    private final GitHubRepositoryService gitHubRepositoryService;
+    private final UserRepositoriesCache userRepositoriesCache;
+    private final GitHubRateLimiter rateLimiter;
+    private final GitHubMetrics gitHubMetrics;
+    private final int topK;
+    private final double budgetShare;
+    private final Duration interval;
+
+    private Instant window = Instant.EPOCH;
+    private long spentInWindow;
+
+    public HotUserRefresher(GitHubRepositoryService gitHubRepositoryService,
+                            UserRepositoriesCache userRepositoriesCache,
+                            GitHubRateLimiter rateLimiter,
+                            GitHubMetrics gitHubMetrics,
+                            @Value("${github.cache.result.refresh.top-k:100}") int topK,
+                            @Value("${github.cache.result.refresh.budget-share:0.1}") double budgetShare,
+                            @Value("${github.cache.result.refresh.interval:30s}") Duration interval) {
+        this.gitHubRepositoryService = gitHubRepositoryService;
+        this.userRepositoriesCache = userRepositoriesCache;
+        this.rateLimiter = rateLimiter;
+        this.gitHubMetrics = gitHubMetrics;
+        this.topK = topK;
+        this.budgetShare = budgetShare;
+        this.interval = interval;
+    }
+
+    @Scheduled(initialDelayString = INTERVAL_MILLIS, fixedDelayString = INTERVAL_MILLIS)
+    public synchronized void refreshHotUsers() {
+        if (rateLimiter.concurrencyScale() < 1.0) {
+            return;
+        }
+
+        long budget = remainingBudget();
+        for (CachedRepositories cached : userRepositoriesCache.hottest(topK)) {
+            if (!userRepositoriesCache.expiresWithin(cached, interval.multipliedBy(2))) {
+                continue;
+            }
+
+            long cost = 1L + cached.repositories().repositories().size();
+            if (cost > budget) {
+                gitHubMetrics.recordHotRefresh("skipped");
+                continue;
+            }
+
+            budget -= cost;
+            spentInWindow += cost;
+            gitHubMetrics.recordHotRefresh("started");
+            gitHubRepositoryService.refreshUserRepositories(cached.username())
+                    .subscribe(repositories -> { }, error -> gitHubMetrics.recordHotRefresh("failed"));
+        }
+    }
+
+    private long remainingBudget() {
+        long limit = rateLimiter.limit();
+        if (limit < 0) {
+            return Long.MAX_VALUE;
+        }
+
+        Instant resetAt = rateLimiter.resetAt();
+        if (!resetAt.equals(window)) {
+            window = resetAt;
+            spentInWindow = 0;
+        }
+        long windowBudget = (long) (limit * budgetShare) - spentInWindow;
+        return Math.max(0, Math.min(windowBudget, rateLimiter.remaining()));
+    }
+}
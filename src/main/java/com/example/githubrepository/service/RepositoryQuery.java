@@ -0,0 +1,75 @@
+package com.example.githubrepository.service;
+
+import com.example.githubrepository.dto.RepositoryDto;
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public record RepositoryQuery(
+        Instant since,
+        Pattern namePattern,
+        Set<String> fields,
+        boolean includeBranches,
+        Integer maxBranches
+) {
+    public static final Set<String> FIELDS = Set.of("name", "owner", "branches", "fork", "status");
+    public static final RepositoryQuery ALL = new RepositoryQuery(null, null, null, true, null);
+
+    public boolean isAll() {
+        return since == null && namePattern == null && fields == null && includeBranches && maxBranches == null;
+    }
+
+    public boolean fetchesBranches() {
+        return includeBranches && (fields == null || fields.contains("branches"))
+                && (maxBranches == null || maxBranches > 0);
+    }
+
+    public Integer branchLimit() {
+        return fetchesBranches() ? maxBranches : Integer.valueOf(0);
+    }
+
+    public boolean matches(Repository repository) {
+        return (namePattern == null || namePattern.matcher(repository.name()).matches())
+                && (since == null || changedSince(repository));
+    }
+
+    public boolean matchesName(RepositoryDto repository) {
+        return namePattern == null || namePattern.matcher(repository.name()).matches();
+    }
+
+    public RepositoryDto project(RepositoryDto repository) {
+        if (isAll()) {
+            return repository;
+        }
+
+        return new RepositoryDto(
+                includes("name") ? repository.name() : null,
+                includes("owner") ? repository.owner() : null,
+                fetchesBranches() ? truncate(repository.branches()) : null,
+                includes("fork") ? repository.fork() : null,
+                includes("status") ? repository.status() : null);
+    }
+
+    private List<Branch> truncate(List<Branch> branches) {
+        if (branches == null || maxBranches == null || branches.size() <= maxBranches) {
+            return branches;
+        }
+        return branches.subList(0, maxBranches);
+    }
+
+    private boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    private boolean changedSince(Repository repository) {
+        if (repository.pushedAt() == null && repository.updatedAt() == null) {
+            return true;
+        }
+        return (repository.pushedAt() != null && repository.pushedAt().isAfter(since))
+                || (repository.updatedAt() != null && repository.updatedAt().isAfter(since));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.githubrepository.tracing;
+
+import reactor.util.context.ContextView;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+public class RequestTrace {
+    public static final String CONTEXT_KEY = RequestTrace.class.getName();
+
+    private final String id;
+    private final String method;
+    private final String path;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final List<TraceSpan> spans = new ArrayList<>();
+    private long endNanos;
+    private Integer status;
+
+    public RequestTrace(String id, String method, String path) {
+        this.id = id;
+        this.method = method;
+        this.path = path;
+    }
+
+    public static Optional<RequestTrace> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public synchronized void record(String name, String uriTemplate, long spanStartNanos, long spanEndNanos,
+                                    Integer status, boolean cacheHit) {
+        spans.add(new TraceSpan(name, uriTemplate, millis(spanStartNanos - startNanos),
+                millis(spanEndNanos - spanStartNanos), status, cacheHit));
+    }
+
+    public synchronized void finish(Integer status) {
+        if (endNanos == 0) {
+            this.endNanos = System.nanoTime();
+            this.status = status;
+        }
+    }
+
+    public synchronized String serverTiming() {
+        Map<String, List<TraceSpan>> byName = new LinkedHashMap<>();
+        for (TraceSpan span : spans) {
+            byName.computeIfAbsent(span.name(), name -> new ArrayList<>()).add(span);
+        }
+
+        List<String> metrics = new ArrayList<>();
+        byName.forEach((name, named) -> {
+            double start = named.stream().mapToDouble(TraceSpan::startMillis).min().orElse(0);
+            double end = named.stream().mapToDouble(span -> span.startMillis() + span.durationMillis()).max().orElse(0);
+            long cacheHits = named.stream().filter(TraceSpan::cacheHit).count();
+            String description = named.size() == 1 && named.get(0).uriTemplate() == null
+                    ? ""
+                    : ";desc=\"" + named.size() + (named.size() == 1 ? " call" : " calls")
+                            + (cacheHits > 0 ? ", " + cacheHits + " cached" : "") + "\"";
+            metrics.add(name + description + ";dur=" + format(end - start));
+        });
+        metrics.add("total;dur=" + format(millis((endNanos != 0 ? endNanos : System.nanoTime()) - startNanos)));
+        return String.join(", ", metrics);
+    }
+
+    public synchronized TraceWaterfall toWaterfall() {
+        List<TraceSpan> ordered = spans.stream()
+                .sorted(Comparator.comparingDouble(TraceSpan::startMillis))
+                .toList();
+        return new TraceWaterfall(id, method, path, startedAt,
+                millis((endNanos != 0 ? endNanos : System.nanoTime()) - startNanos), status, ordered);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.2f", millis);
+    }
+}
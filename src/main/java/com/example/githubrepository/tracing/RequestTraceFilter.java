@@ -0,0 +1,66 @@
+package com.example.githubrepository.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class RequestTraceFilter implements WebFilter {
+    public static final String DEBUG_TRACE_HEADER = "X-Debug-Trace";
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final boolean debugHeaderEnabled;
+    private final TraceStore traceStore;
+
+    public RequestTraceFilter(@Value("${github.tracing.enabled:true}") boolean enabled,
+                              @Value("${github.tracing.sample-rate:0.01}") double sampleRate,
+                              @Value("${github.tracing.debug-header-enabled:true}") boolean debugHeaderEnabled,
+                              TraceStore traceStore) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.debugHeaderEnabled = debugHeaderEnabled;
+        this.traceStore = traceStore;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!enabled || !exchange.getRequest().getPath().value().startsWith("/api/github/users") || !isSampled(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        RequestTrace trace = new RequestTrace(UUID.randomUUID().toString(), exchange.getRequest().getMethod().name(),
+                exchange.getRequest().getPath().value());
+        traceStore.put(trace);
+        exchange.getResponse().beforeCommit(() -> {
+            exchange.getResponse().getHeaders().set(TRACE_ID_HEADER, trace.id());
+            exchange.getResponse().getHeaders().set(SERVER_TIMING_HEADER, trace.serverTiming());
+            return Mono.empty();
+        });
+
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(RequestTrace.CONTEXT_KEY, trace))
+                .doFinally(signal -> trace.finish(statusOf(exchange)));
+    }
+
+    private boolean isSampled(ServerWebExchange exchange) {
+        if (debugHeaderEnabled && "true".equalsIgnoreCase(exchange.getRequest().getHeaders().getFirst(DEBUG_TRACE_HEADER))) {
+            return true;
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private static Integer statusOf(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null ? status.value() : null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.githubrepository.tracing;
+
+public record TraceSpan(
+        String name,
+        String uriTemplate,
+        double startMillis,
+        double durationMillis,
+        Integer status,
+        boolean cacheHit
+) { }
@@ -0,0 +1,53 @@
+package com.example.githubrepository.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+public class TraceStore {
+    private final boolean enabled;
+    private final Map<String, RequestTrace> traces;
+
+    public TraceStore(@Value("${github.tracing.waterfall.enabled:false}") boolean enabled,
+                      @Value("${github.tracing.waterfall.max-traces:100}") int maxTraces) {
+        this.enabled = enabled;
+        this.traces = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RequestTrace> eldest) {
+                return size() > maxTraces;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void put(RequestTrace trace) {
+        if (enabled) {
+            synchronized (this) {
+                traces.put(trace.id(), trace);
+            }
+        }
+    }
+
+    public synchronized Optional<TraceWaterfall> get(String traceId) {
+        return Optional.ofNullable(traces.get(traceId)).map(RequestTrace::toWaterfall);
+    }
+
+    public List<TraceWaterfall> recent() {
+        List<RequestTrace> recent;
+        synchronized (this) {
+            recent = new ArrayList<>(traces.values());
+        }
+        return recent.reversed().stream()
+                .map(RequestTrace::toWaterfall)
+                .toList();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.githubrepository.tracing;
+
+import java.time.Instant;
+import java.util.List;
+
+public record TraceWaterfall(
+        String traceId,
+        String method,
+        String path,
+        Instant startedAt,
+        double durationMillis,
+        Integer status,
+        List<TraceSpan> spans
+) { }
@@ -0,0 +1,50 @@
+package com.example.githubrepository.tracing;
+
+import com.example.githubrepository.metrics.GitHubMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class UpstreamTracer implements ExchangeFilterFunction {
+    public static final String URI_TEMPLATE_ATTRIBUTE = UpstreamTracer.class.getName() + ".uriTemplate";
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> RequestTrace.from(context)
+                .map(trace -> trace(trace, request, next))
+                .orElseGet(() -> next.exchange(request)));
+    }
+
+    private Mono<ClientResponse> trace(RequestTrace trace, ClientRequest request, ExchangeFunction next) {
+        String name = request.attribute(GitHubMetrics.ENDPOINT_ATTRIBUTE).map(Object::toString).orElse("upstream");
+        String uriTemplate = request.attribute(URI_TEMPLATE_ATTRIBUTE).map(Object::toString)
+                .orElse(request.url().getPath());
+        long start = System.nanoTime();
+        AtomicBoolean recorded = new AtomicBoolean();
+
+        return next.exchange(request)
+                .doOnNext(response -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        trace.record(name, uriTemplate, start, System.nanoTime(), response.statusCode().value(),
+                                response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED));
+                    }
+                })
+                .doOnError(error -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        trace.record(name, uriTemplate, start, System.nanoTime(), null, false);
+                    }
+                })
+                .doOnCancel(() -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        trace.record(name, uriTemplate, start, System.nanoTime(), null, false);
+                    }
+                });
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.githubrepository.adapter;
+
+import com.example.githubrepository.dto.RepositoryDto;
+import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.example.githubrepository.model.Branch;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import config.TestConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = {"github.api.mode=graphql", "github.cache.negative.enabled=true"})
+@WireMockTest(httpPort = 8080)
+@ContextConfiguration(classes = TestConfig.class)
+@ActiveProfiles("test")
+public class GraphQlGitHubRepositoryAdapterTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testListUserRepositoriesWithGraphQl() {
+        final String username = "testUser";
+
+        stubFor(post(urlPathEqualTo("/graphql"))
+            .atPriority(10)
+            .withRequestBody(matchingJsonPath("$.variables.login", equalTo(username)))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {
+                        "data": {
+                            "repositoryOwner": {
+                                "repositories": {
+                                    "pageInfo": { "hasNextPage": true, "endCursor": "repositories-cursor" },
+                                    "nodes": [
+                                        {
+                                            "name": "firstRepository",
+                                            "owner": { "login": "%s" },
+                                            "isFork": false,
+                                            "refs": {
+                                                "pageInfo": { "hasNextPage": true, "endCursor": "refs-cursor" },
+                                                "nodes": [ { "name": "main", "target": { "oid": "main-sha" } } ]
+                                            }
+                                        }
+                                    ]
+                                }
+                            }
+                        }
+                    }
+                    """.formatted(username))));
+
+        stubFor(post(urlPathEqualTo("/graphql"))
+            .atPriority(1)
+            .withRequestBody(matchingJsonPath("$.variables.cursor", equalTo("repositories-cursor")))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {
+                        "data": {
+                            "repositoryOwner": {
+                                "repositories": {
+                                    "pageInfo": { "hasNextPage": false, "endCursor": null },
+                                    "nodes": [
+                                        {
+                                            "name": "secondRepository",
+                                            "owner": { "login": "%s" },
+                                            "isFork": false,
+                                            "refs": {
+                                                "pageInfo": { "hasNextPage": false, "endCursor": null },
+                                                "nodes": []
+                                            }
+                                        }
+                                    ]
+                                }
+                            }
+                        }
+                    }
+                    """.formatted(username))));
+
+        stubFor(post(urlPathEqualTo("/graphql"))
+            .atPriority(1)
+            .withRequestBody(matchingJsonPath("$.variables.cursor", equalTo("refs-cursor")))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {
+                        "data": {
+                            "repository": {
+                                "refs": {
+                                    "pageInfo": { "hasNextPage": false, "endCursor": null },
+                                    "nodes": [ { "name": "develop", "target": { "oid": "develop-sha" } } ]
+                                }
+                            }
+                        }
+                    }
+                    """)));
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryDtoArray.class)
+                .consumeWith(response -> {
+                    var repositories = response.getResponseBody();
+
+                    assertThat(repositories).isNotNull();
+                    assertThat(repositories.repositories())
+                            .extracting(RepositoryDto::name)
+                            .containsExactlyInAnyOrder("firstRepository", "secondRepository");
+
+                    var firstRepository = repositories.repositories().stream()
+                            .filter(repository -> repository.name().equals("firstRepository"))
+                            .findFirst()
+                            .orElseThrow();
+
+                    assertThat(firstRepository.owner().login()).isEqualTo(username);
+                    assertThat(firstRepository.branches())
+                            .extracting(Branch::name)
+                            .containsExactly("main", "develop");
+                    assertThat(firstRepository.branches().getLast().commit().sha()).isEqualTo("develop-sha");
+                });
+
+        verify(3, postRequestedFor(urlPathEqualTo("/graphql")));
+        verify(0, getRequestedFor(anyUrl()));
+    }
+
+    @Test
+    void testListUserRepositoriesWithGraphQlPushesBranchLimitsDown() {
+        final String username = "projectedUser";
+
+        stubFor(post(urlPathEqualTo("/graphql"))
+            .withRequestBody(matchingJsonPath("$.variables.login", equalTo(username)))
+            .withRequestBody(matchingJsonPath("$.variables.withBranches", equalTo("false")))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {
+                        "data": {
+                            "repositoryOwner": {
+                                "repositories": {
+                                    "pageInfo": { "hasNextPage": false, "endCursor": null },
+                                    "nodes": [ { "name": "projectedRepository", "owner": { "login": "%s" }, "isFork": false } ]
+                                }
+                            }
+                        }
+                    }
+                    """.formatted(username))));
+
+        stubFor(post(urlPathEqualTo("/graphql"))
+            .withRequestBody(matchingJsonPath("$.variables.login", equalTo(username)))
+            .withRequestBody(matchingJsonPath("$.variables.withBranches", equalTo("true")))
+            .withRequestBody(matchingJsonPath("$.variables.branchPageSize", equalTo("1")))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {
+                        "data": {
+                            "repositoryOwner": {
+                                "repositories": {
+                                    "pageInfo": { "hasNextPage": false, "endCursor": null },
+                                    "nodes": [
+                                        {
+                                            "name": "projectedRepository",
+                                            "owner": { "login": "%s" },
+                                            "isFork": false,
+                                            "refs": {
+                                                "pageInfo": { "hasNextPage": true, "endCursor": "refs-cursor" },
+                                                "nodes": [ { "name": "main", "target": { "oid": "main-sha" } } ]
+                                            }
+                                        }
+                                    ]
+                                }
+                            }
+                        }
+                    }
+                    """.formatted(username))));
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories?fields=name", username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.repositories[0].name").isEqualTo("projectedRepository")
+                .jsonPath("$.repositories[0].branches").doesNotExist();
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories?maxBranches=1", username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.repositories[0].branches.length()").isEqualTo(1)
+                .jsonPath("$.repositories[0].branches[0].name").isEqualTo("main");
+
+        verify(2, postRequestedFor(urlPathEqualTo("/graphql")));
+    }
+
+    @Test
+    void testListUserRepositoriesWithGraphQlUserNotFound() {
+        final String username = "missingUser";
+
+        stubFor(post(urlPathEqualTo("/graphql"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {
+                        "data": { "repositoryOwner": null },
+                        "errors": [ { "type": "NOT_FOUND", "message": "Could not resolve to a RepositoryOwner" } ]
+                    }
+                    """)));
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(HttpStatus.NOT_FOUND.value())
+                .jsonPath("$.message").isEqualTo("User not found");
+    }
+
+    @Test
+    void testListUserRepositoriesWithGraphQlRateLimited() {
+        final String username = "rateLimitedUser";
+
+        stubFor(post(urlPathEqualTo("/graphql"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {
+                        "errors": [ { "type": "RATE_LIMITED", "message": "API rate limit exceeded" } ]
+                    }
+                    """)));
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().exists("Retry-After");
+
+        stubFor(post(urlPathEqualTo("/graphql"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {
+                        "errors": [ { "message": "Something went wrong while executing your query" } ]
+                    }
+                    """)));
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .exchange()
+                .expectStatus().is5xxServerError();
+
+        stubFor(post(urlPathEqualTo("/graphql"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {
+                        "data": {
+                            "repositoryOwner": {
+                                "repositories": { "pageInfo": { "hasNextPage": false, "endCursor": null }, "nodes": [] }
+                            }
+                        }
+                    }
+                    """)));
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.githubrepository.cache;
+
+import com.example.githubrepository.cache.ConditionalRequestCache.CachedResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ConditionalRequestCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testDiskFallbackRunsOffTheCallingThread() throws Exception {
+        DiskCacheStore store = new DiskCacheStore(directory, DataSize.ofMegabytes(16), Duration.ofHours(1), 100);
+        store.put("/users/diskUser/repos", new CachedResponse("\"etag\"", null, List.of(), 1, Instant.now()));
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!store.contains("/users/diskUser/repos") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        ConditionalRequestCache cache = new ConditionalRequestCache(100, Duration.ofHours(1), Optional.of(store));
+
+        String[] readingThread = new String[1];
+        Optional<CachedResponse> fromDisk = cache.get("/users/diskUser/repos")
+                .doOnNext(response -> readingThread[0] = Thread.currentThread().getName())
+                .block(Duration.ofSeconds(5));
+        Optional<CachedResponse> fromMemory = cache.get("/users/diskUser/repos").block();
+
+        assertThat(fromDisk).hasValueSatisfying(response -> assertThat(response.eTag()).isEqualTo("\"etag\""));
+        assertThat(readingThread[0]).startsWith("boundedElastic");
+        assertThat(fromMemory).isEqualTo(fromDisk);
+        store.destroy();
+    }
+
+    @Test
+    void testUrlMissingFromDiskIsAnsweredOnTheCallingThread() throws Exception {
+        DiskCacheStore store = new DiskCacheStore(directory, DataSize.ofMegabytes(16), Duration.ofHours(1), 100);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!store.isLoaded() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        ConditionalRequestCache cache = new ConditionalRequestCache(100, Duration.ofHours(1), Optional.of(store));
+
+        String[] readingThread = new String[1];
+        Optional<CachedResponse> missing = cache.get("/users/coldUser/repos")
+                .doOnNext(response -> readingThread[0] = Thread.currentThread().getName())
+                .block(Duration.ofSeconds(5));
+
+        assertThat(missing).isEmpty();
+        assertThat(readingThread[0]).isEqualTo(Thread.currentThread().getName());
+        store.destroy();
+    }
+}
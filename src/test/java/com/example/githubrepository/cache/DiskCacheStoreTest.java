@@ -0,0 +1,180 @@
+package com.example.githubrepository.cache;
+
+import com.example.githubrepository.cache.ConditionalRequestCache.CachedResponse;
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Commit;
+import com.example.githubrepository.model.Owner;
+import com.example.githubrepository.model.Repository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class DiskCacheStoreTest {
+    private static final Instant PUSHED_AT = Instant.parse("2024-06-01T12:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testEntriesSurviveRestart() throws Exception {
+        DiskCacheStore store = open(DataSize.ofMegabytes(16));
+        store.put("/users/diskUser/repos?per_page=100&page=1", new CachedResponse("\"etag-1\"", null,
+                List.of(new Repository("diskRepository", new Owner("diskUser"), null, false, PUSHED_AT, null)), 3, Instant.now()));
+        store.put("/repos/diskUser/diskRepository/branches?per_page=100&page=1", new CachedResponse(null,
+                "Wed, 21 Oct 2015 07:28:00 GMT", List.of(new Branch("main", new Commit("sha"))), 1, Instant.now()));
+        store.put("/users/removedUser/repos?per_page=100&page=1", new CachedResponse("\"etag-2\"", null,
+                List.of(), 1, Instant.now()));
+        store.remove("/users/removedUser/repos?per_page=100&page=1");
+        store.destroy();
+
+        DiskCacheStore reopened = open(DataSize.ofMegabytes(16));
+
+        assertThat(reopened.get("/users/diskUser/repos?per_page=100&page=1")).hasValueSatisfying(response -> {
+            assertThat(response.eTag()).isEqualTo("\"etag-1\"");
+            assertThat(response.lastPage()).isEqualTo(3);
+            assertThat(response.items()).isEqualTo(List.of(new Repository("diskRepository", new Owner("diskUser"), null, false, PUSHED_AT, null)));
+        });
+        assertThat(reopened.get("/repos/diskUser/diskRepository/branches?per_page=100&page=1")).hasValueSatisfying(response ->
+                assertThat(response.items()).isEqualTo(List.of(new Branch("main", new Commit("sha")))));
+        assertThat(reopened.get("/users/removedUser/repos?per_page=100&page=1")).isEmpty();
+        reopened.destroy();
+    }
+
+    @Test
+    void testTruncatedTailIsDiscardedOnLoad() throws Exception {
+        DiskCacheStore store = open(DataSize.ofMegabytes(16));
+        store.put("/users/intactUser/repos", new CachedResponse("\"etag\"", null, List.of(), 1, Instant.now()));
+        store.destroy();
+
+        Path file = directory.resolve("conditional-requests.bin");
+        Files.write(file, new byte[] {0, 0, 1, 0, 1, 2}, StandardOpenOption.APPEND);
+
+        DiskCacheStore reopened = open(DataSize.ofMegabytes(16));
+
+        assertThat(reopened.get("/users/intactUser/repos")).isPresent();
+        assertThat(reopened.entryCount()).isEqualTo(1);
+        reopened.destroy();
+    }
+
+    @Test
+    void testCompactionKeepsFileWithinMaxSize() throws Exception {
+        DiskCacheStore store = open(DataSize.ofKilobytes(64));
+        List<Branch> branches = List.of(new Branch("main", new Commit("a".repeat(40))));
+        for (int i = 0; i < 2000; i++) {
+            store.put("/repos/compactedUser/repository-" + (i % 200) + "/branches",
+                    new CachedResponse("\"etag-" + i + "\"", null, branches, 1, Instant.now()));
+        }
+        store.destroy();
+
+        assertThat(Files.size(directory.resolve("conditional-requests.bin"))).isLessThanOrEqualTo(DataSize.ofKilobytes(64).toBytes());
+
+        DiskCacheStore reopened = open(DataSize.ofKilobytes(64));
+
+        assertThat(reopened.get("/repos/compactedUser/repository-199/branches"))
+                .hasValueSatisfying(response -> assertThat(response.eTag()).isEqualTo("\"etag-1999\""));
+        reopened.destroy();
+    }
+
+    @Test
+    void testRemovalIsPersistedLaterWhenWriteQueueIsFull() throws Exception {
+        DiskCacheStore store = open(DataSize.ofMegabytes(16), 1);
+        String removedUrl = "/users/removedUser/repos";
+        store.put(removedUrl, new CachedResponse("\"etag\"", null, List.of(), 1, Instant.now()));
+        awaitUntil(() -> store.contains(removedUrl));
+
+        synchronized (store) {
+            for (int i = 0; i < 10; i++) {
+                store.put("/users/droppedUser-" + i + "/repos", new CachedResponse("\"etag\"", null, List.of(), 1, Instant.now()));
+            }
+            store.remove(removedUrl);
+
+            assertThat(store.contains(removedUrl)).isFalse();
+        }
+        store.destroy();
+
+        assertThat(store.droppedWriteCount()).isGreaterThanOrEqualTo(8);
+
+        DiskCacheStore reopened = open(DataSize.ofMegabytes(16));
+
+        assertThat(reopened.get(removedUrl)).isEmpty();
+        reopened.destroy();
+    }
+
+    @Test
+    void testPutQueuedBeforeRemovalIsNotRestored() throws Exception {
+        DiskCacheStore store = open(DataSize.ofMegabytes(16));
+        String removedUrl = "/users/removedUser/repos";
+
+        synchronized (store) {
+            store.put("/users/blockingUser/repos", new CachedResponse("\"etag\"", null, List.of(), 1, Instant.now()));
+            store.put(removedUrl, new CachedResponse("\"etag\"", null, List.of(), 1, Instant.now()));
+            store.remove(removedUrl);
+        }
+        store.destroy();
+
+        assertThat(store.contains(removedUrl)).isFalse();
+
+        DiskCacheStore reopened = open(DataSize.ofMegabytes(16));
+
+        assertThat(reopened.get(removedUrl)).isEmpty();
+        assertThat(reopened.get("/users/blockingUser/repos")).isPresent();
+        reopened.destroy();
+    }
+
+    @Test
+    void testRemovalsSurviveCompaction() throws Exception {
+        DiskCacheStore store = open(DataSize.ofKilobytes(64));
+        List<Branch> branches = List.of(new Branch("main", new Commit("a".repeat(40))));
+        Map<String, Boolean> removed = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            String url = "/repos/compactedUser/repository-" + (i % 50) + "/branches";
+            if (i % 7 == 0) {
+                store.remove(url);
+                removed.put(url, true);
+                assertThat(store.contains(url)).isFalse();
+            } else {
+                store.put(url, new CachedResponse("\"etag-" + i + "\"", null, branches, 1, Instant.now()));
+                removed.put(url, false);
+            }
+        }
+        store.destroy();
+
+        DiskCacheStore reopened = open(DataSize.ofKilobytes(64));
+
+        removed.forEach((url, isRemoved) -> {
+            if (isRemoved) {
+                assertThat(reopened.get(url)).as(url).isEmpty();
+            }
+        });
+        reopened.destroy();
+    }
+
+    private DiskCacheStore open(DataSize maxSize) throws Exception {
+        return open(maxSize, 10_000);
+    }
+
+    private DiskCacheStore open(DataSize maxSize, int writeQueueSize) throws Exception {
+        DiskCacheStore store = new DiskCacheStore(directory, maxSize, Duration.ofHours(1), writeQueueSize);
+        awaitUntil(store::isLoaded);
+        return store;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
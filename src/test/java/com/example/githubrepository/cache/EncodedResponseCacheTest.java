@@ -0,0 +1,69 @@
+package com.example.githubrepository.cache;
+
+import com.example.githubrepository.cache.EncodedResponseCache.EncodedResponse;
+import com.example.githubrepository.dto.RepositoryDto;
+import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.example.githubrepository.dto.RepositoryStatus;
+import com.example.githubrepository.model.Owner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class EncodedResponseCacheTest {
+    private final EncodedResponseCache cache =
+            new EncodedResponseCache(true, 100, DataSize.ofBytes(256), new ObjectMapper());
+
+    @Test
+    void testGetReusesEncodingOfSameResult() {
+        RepositoryDtoArray repositories = repositories(1);
+
+        EncodedResponse first = cache.get("TestUser", repositories);
+        EncodedResponse second = cache.get("testuser", repositories);
+        EncodedResponse changed = cache.get("testUser", repositories(2));
+
+        assertThat(second).isSameAs(first);
+        assertThat(changed.eTag()).isNotEqualTo(first.eTag());
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testEncodeProducesStableStrongETagAndGzipVariant() throws IOException {
+        EncodedResponse encoded = cache.encode(repositories(50));
+
+        assertThat(encoded.eTag()).isEqualTo(cache.encode(repositories(50)).eTag());
+        assertThat(encoded.eTag()).startsWith("\"").endsWith("\"").doesNotStartWith("W/");
+        assertThat(encoded.gzipETag()).isNotEqualTo(encoded.eTag());
+        assertThat(encoded.gzipBody()).isNotNull();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(encoded.gzipBody()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(encoded.body());
+        }
+        assertThat(cache.encode(repositories(1)).gzipBody()).isNull();
+    }
+
+    @Test
+    void testMatchesIfNoneMatchLists() {
+        EncodedResponse encoded = cache.encode(repositories(50));
+
+        assertThat(encoded.matches("\"other\", " + encoded.eTag())).isTrue();
+        assertThat(encoded.matches("W/" + encoded.gzipETag())).isTrue();
+        assertThat(encoded.matches("*")).isTrue();
+        assertThat(encoded.matches("\"other\"")).isFalse();
+        assertThat(encoded.matches(null)).isFalse();
+    }
+
+    private static RepositoryDtoArray repositories(int count) {
+        return new RepositoryDtoArray(IntStream.range(0, count)
+                .mapToObj(i -> new RepositoryDto("repository-" + i, new Owner("testUser"), List.of(), false,
+                        RepositoryStatus.COMPLETE))
+                .toList());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.githubrepository.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class NegativeCacheTest {
+
+    @Test
+    void testNegativeCacheRemembersMissingUsersAndRepositories() {
+        NegativeCache negativeCache = new NegativeCache(true, 100, Duration.ofMinutes(1));
+
+        negativeCache.recordMissingUser("MissingUser");
+        negativeCache.recordMissingRepository("testUser", "MissingRepository");
+
+        assertThat(negativeCache.isMissingUser("missinguser")).isTrue();
+        assertThat(negativeCache.isMissingRepository("TESTUSER", "missingRepository")).isTrue();
+        assertThat(negativeCache.isMissingUser("testUser")).isFalse();
+        assertThat(negativeCache.hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testNegativeCacheEntriesExpire() {
+        NegativeCache negativeCache = new NegativeCache(true, 100, Duration.ZERO.minusMillis(1));
+
+        negativeCache.recordMissingUser("missingUser");
+
+        assertThat(negativeCache.isMissingUser("missingUser")).isFalse();
+        assertThat(negativeCache.size()).isZero();
+    }
+
+    @Test
+    void testDisabledNegativeCacheRemembersNothing() {
+        NegativeCache negativeCache = new NegativeCache(false, 100, Duration.ofMinutes(1));
+
+        negativeCache.recordMissingUser("missingUser");
+
+        assertThat(negativeCache.isMissingUser("missingUser")).isFalse();
+    }
+}
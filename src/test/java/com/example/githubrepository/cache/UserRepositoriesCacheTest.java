@@ -0,0 +1,57 @@
+package com.example.githubrepository.cache;
+
+import com.example.githubrepository.cache.UserRepositoriesCache.CachedRepositories;
+import com.example.githubrepository.dto.RepositoryDtoArray;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class UserRepositoriesCacheTest {
+
+    @Test
+    void testGetServesStaleEntryWithinStaleWindow() {
+        UserRepositoriesCache cache = new UserRepositoriesCache(true, 100, Duration.ZERO, Duration.ofHours(1));
+        RepositoryDtoArray repositories = new RepositoryDtoArray(List.of());
+        cache.put("TestUser", repositories);
+
+        Optional<CachedRepositories> cached = cache.get("testuser");
+
+        assertThat(cached).isPresent();
+        assertThat(cached.get().repositories()).isSameAs(repositories);
+        assertThat(cache.isStale(cached.get())).isTrue();
+        assertThat(cache.staleHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetDropsEntryPastStaleWindow() {
+        UserRepositoriesCache cache = new UserRepositoriesCache(true, 100, Duration.ZERO, Duration.ZERO);
+        cache.put("testUser", new RepositoryDtoArray(List.of()));
+
+        assertThat(cache.get("testUser")).isEmpty();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testHottestOrdersByRequestFrequency() {
+        UserRepositoriesCache cache = new UserRepositoriesCache(true, 100, Duration.ofMinutes(5), Duration.ofMinutes(30));
+        for (String username : List.of("coldUser", "warmUser", "hotUser")) {
+            cache.put(username, new RepositoryDtoArray(List.of()));
+        }
+        for (int i = 0; i < 5; i++) {
+            cache.get("hotUser");
+        }
+        for (int i = 0; i < 2; i++) {
+            cache.get("warmUser");
+        }
+
+        List<String> hottest = cache.hottest(2).stream().map(CachedRepositories::username).toList();
+
+        assertThat(hottest).isEqualTo(List.of("hotUser", "warmUser"));
+        assertThat(cache.freshHitCount()).isEqualTo(7);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.githubrepository.codec;
+
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Commit;
+import com.example.githubrepository.model.Owner;
+import com.example.githubrepository.model.Repository;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class GitHubModelDecoderTest {
+    private static final String REPOSITORIES = """
+            [
+              {"id": 1, "name": "repo1", "owner": {"login": "testUser", "id": 7, "urls": ["a", {"b": "c"}]},
+               "topics": ["java", "spring"], "license": {"key": "mit", "nested": {"fork": true}},
+               "fork": false, "stargazers_count": 12.5, "description": null, "pushed_at": "2024-06-01T12:00:00Z"},
+              {"name": "repo2", "fork": true, "owner": {"login": "otherUser"}, "permissions": {"admin": false}}
+            ]
+            """;
+
+    private final GitHubModelDecoder decoder = new GitHubModelDecoder(new JsonFactory(), 1024);
+
+    @Test
+    void testDecodeRepositoriesSkipsUnusedFieldsAcrossChunkBoundaries() {
+        for (int chunkSize = 1; chunkSize <= 16; chunkSize++) {
+            StepVerifier.create(decoder.decode(chunks(REPOSITORIES, chunkSize), ResolvableType.forClass(Repository.class),
+                            MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                    .expectNext(new Repository("repo1", new Owner("testUser"), null, false,
+                            Instant.parse("2024-06-01T12:00:00Z"), null))
+                    .expectNext(new Repository("repo2", new Owner("otherUser"), null, true, null, null))
+                    .verifyComplete();
+        }
+    }
+
+    @Test
+    void testDecodeBranches() {
+        String branches = """
+                [{"name": "main", "commit": {"sha": "abc123", "url": "https://example.com"}, "protected": true},
+                 {"name": "dev", "protection": {"enabled": false}, "commit": {"sha": "def456"}}]
+                """;
+
+        StepVerifier.create(decoder.decode(chunks(branches, 5), ResolvableType.forClass(Branch.class),
+                        MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .expectNext(new Branch("main", new Commit("abc123")))
+                .expectNext(new Branch("dev", new Commit("def456")))
+                .verifyComplete();
+    }
+
+    @Test
+    void testDecodeFailsOnOversizedOrTruncatedElements() {
+        GitHubModelDecoder smallDecoder = new GitHubModelDecoder(new JsonFactory(), 64);
+
+        StepVerifier.create(smallDecoder.decode(chunks(REPOSITORIES, 16), ResolvableType.forClass(Repository.class),
+                        MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .verifyError(DataBufferLimitException.class);
+
+        StepVerifier.create(decoder.decode(chunks("[{\"name\": \"repo1\", \"owner\": {", 8),
+                        ResolvableType.forClass(Repository.class), MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .verifyError(DecodingException.class);
+
+        assertThat(decoder.canDecode(ResolvableType.forClass(Repository.class), MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClass(String.class), MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return Flux.range(0, (bytes.length + chunkSize - 1) / chunkSize)
+                .map(chunk -> {
+                    int offset = chunk * chunkSize;
+                    byte[] slice = new byte[Math.min(chunkSize, bytes.length - offset)];
+                    System.arraycopy(bytes, offset, slice, 0, slice.length);
+                    return DefaultDataBufferFactory.sharedInstance.wrap(slice);
+                });
+    }
+}
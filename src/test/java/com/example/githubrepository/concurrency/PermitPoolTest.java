@@ -0,0 +1,115 @@
+package com.example.githubrepository.concurrency;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class PermitPoolTest {
+
+    @Test
+    void testWithPermitWaitsForReleasedPermit() {
+        PermitPool permitPool = new PermitPool(1);
+        Sinks.One<String> firstCall = Sinks.one();
+        AtomicBoolean secondCallSubscribed = new AtomicBoolean();
+
+        permitPool.withPermit(firstCall.asMono()).subscribe();
+        permitPool.withPermit(Mono.fromCallable(() -> {
+            secondCallSubscribed.set(true);
+            return "second";
+        })).subscribe();
+
+        assertThat(permitPool.inUse()).isEqualTo(1);
+        assertThat(permitPool.waiting()).isEqualTo(1);
+        assertThat(secondCallSubscribed).isFalse();
+
+        firstCall.tryEmitValue("first");
+
+        assertThat(secondCallSubscribed).isTrue();
+        assertThat(permitPool.inUse()).isZero();
+        assertThat(permitPool.waiting()).isZero();
+    }
+
+    @Test
+    void testWithPermitReleasesOnCancellation() {
+        PermitPool permitPool = new PermitPool(1);
+
+        Disposable running = permitPool.withPermit(Mono.never()).subscribe();
+        Disposable waiting = permitPool.withPermit(Mono.never()).subscribe();
+
+        waiting.dispose();
+
+        assertThat(permitPool.waiting()).isZero();
+        assertThat(permitPool.inUse()).isEqualTo(1);
+
+        running.dispose();
+
+        assertThat(permitPool.inUse()).isZero();
+    }
+
+    @Test
+    void testWithPermitReleasesOnError() {
+        PermitPool permitPool = new PermitPool(1);
+
+        permitPool.withPermit(Mono.error(new IllegalStateException("failed"))).subscribe(value -> { }, error -> { });
+
+        assertThat(permitPool.inUse()).isZero();
+    }
+
+    @Test
+    void testWithPermitPrefersInteractiveOverBatch() {
+        PermitPool permitPool = new PermitPool(() -> 2, 0.5);
+        List<String> started = new ArrayList<>();
+        Sinks.One<String> firstBatchCall = Sinks.one();
+
+        permitPool.withPermit(firstBatchCall.asMono(), Priority.BATCH).subscribe();
+        permitPool.withPermit(Mono.fromRunnable(() -> started.add("batch")).then(Mono.never()), Priority.BATCH).subscribe();
+
+        assertThat(permitPool.inUse()).isEqualTo(1);
+        assertThat(started).isEmpty();
+
+        permitPool.withPermit(Mono.fromRunnable(() -> started.add("interactive")).then(Mono.never())).subscribe();
+
+        assertThat(started).containsExactly("interactive");
+
+        firstBatchCall.tryEmitValue("done");
+
+        assertThat(started).containsExactly("interactive", "batch");
+        assertThat(permitPool.waiting()).isZero();
+    }
+
+    @Test
+    void testWithPermitRejectsWhenWaitQueueIsFull() {
+        PermitPool permitPool = new PermitPool(() -> 1, 0.5, 1, null);
+        List<Throwable> errors = new ArrayList<>();
+
+        permitPool.withPermit(Flux.never(), Priority.INTERACTIVE).subscribe();
+        permitPool.withPermit(Flux.never(), Priority.INTERACTIVE).subscribe();
+        permitPool.withPermit(Flux.never(), Priority.INTERACTIVE).subscribe(value -> { }, errors::add);
+
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0)).isInstanceOf(RejectedExecutionException.class);
+        assertThat(permitPool.inUse()).isEqualTo(1);
+        assertThat(permitPool.waiting()).isEqualTo(1);
+    }
+
+    @Test
+    void testWithPermitGivesUpAfterMaxWait() {
+        PermitPool permitPool = new PermitPool(() -> 1, 0.5, 10, Duration.ofMillis(50));
+
+        permitPool.withPermit(Flux.never(), Priority.INTERACTIVE).subscribe();
+
+        assertThatThrownBy(() -> permitPool.withPermit(Flux.just("late"), Priority.INTERACTIVE).blockLast())
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(permitPool.waiting()).isZero();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.githubrepository.concurrency;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    void testExecuteSharesInFlightCall() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger subscriptions = new AtomicInteger();
+        List<String> results = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            singleFlight.execute("testUser", () -> upstream.asMono().doOnSubscribe(s -> subscriptions.incrementAndGet()))
+                    .subscribe(results::add);
+        }
+
+        upstream.tryEmitValue("result");
+
+        assertThat(subscriptions).hasValue(1);
+        assertThat(results).containsExactly("result", "result", "result");
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void testExecutePropagatesErrorToAllSubscribers() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        Sinks.One<String> upstream = Sinks.one();
+        List<Throwable> errors = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            singleFlight.execute("testUser", upstream::asMono).subscribe(value -> { }, errors::add);
+        }
+
+        upstream.tryEmitError(new IllegalStateException("failed"));
+
+        assertThat(errors).hasSize(2).allMatch(IllegalStateException.class::isInstance);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void testExecuteCancelsUpstreamOnlyWhenLastSubscriberLeaves() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        Disposable first = singleFlight.execute("testUser", () -> Mono.<String>never().doOnCancel(() -> cancelled.set(true)))
+                .subscribe();
+        Disposable second = singleFlight.execute("testUser", Mono::never).subscribe();
+
+        first.dispose();
+        assertThat(cancelled).isFalse();
+
+        second.dispose();
+        assertThat(cancelled).isTrue();
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.githubrepository.config;
+
+import com.example.githubrepository.dto.RepositoryDto;
+import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Commit;
+import com.example.githubrepository.model.Owner;
+import com.example.githubrepository.model.Repository;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class GitHubRuntimeHintsTest {
+
+    @Test
+    void testRegistersBindingHintsForModelAndDtoRecords() throws NoSuchMethodException {
+        RuntimeHints hints = new RuntimeHints();
+
+        new GitHubRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        for (Class<?> type : new Class<?>[] {Repository.class, Owner.class, Branch.class, Commit.class,
+                RepositoryDto.class, RepositoryDtoArray.class}) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(type)).accepts(hints);
+        }
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(Repository.class.getMethod("pushedAt"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(RepositoryDtoArray.class.getMethod("repositories")))
+                .accepts(hints);
+    }
+}
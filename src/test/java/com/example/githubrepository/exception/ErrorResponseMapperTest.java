@@ -0,0 +1,33 @@
+package com.example.githubrepository.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ErrorResponseMapperTest {
+
+    @Test
+    void testRetryAfterIsCarriedForRateLimitAndOverload() {
+        RateLimitExceededException rateLimited = new RateLimitExceededException("Rate limit exceeded", Duration.ofMillis(41_500));
+        OverloadedException overloaded = new OverloadedException("Overloaded", Duration.ZERO);
+
+        assertThat(ErrorResponseMapper.toErrorResponse(rateLimited))
+                .isEqualTo(new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded"));
+        assertThat(ErrorResponseMapper.retryAfterSeconds(rateLimited)).isEqualTo(42);
+        assertThat(ErrorResponseMapper.toStatus(overloaded)).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(ErrorResponseMapper.retryAfterSeconds(overloaded)).isEqualTo(1);
+        assertThat(ErrorResponseMapper.retryAfterSeconds(UserNotFoundException.USER_NOT_FOUND)).isNull();
+    }
+
+    @Test
+    void testUnknownExceptionsAreReportedAsServerErrorWithoutTheirMessage() {
+        IllegalStateException unexpected = new IllegalStateException("internal detail");
+
+        assertThat(ErrorResponseMapper.toStatus(unexpected)).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(ErrorResponseMapper.toErrorResponse(unexpected))
+                .isEqualTo(new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Server error"));
+    }
+}
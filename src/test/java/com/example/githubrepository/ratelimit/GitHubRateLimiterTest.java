@@ -0,0 +1,148 @@
+package com.example.githubrepository.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class GitHubRateLimiterTest {
+    private static final ClientRequest REQUEST = ClientRequest.create(HttpMethod.GET, URI.create("/users/testUser/repos")).build();
+
+    @Test
+    void testFilterPrefersTokenWithMostRemainingBudget() {
+        GitHubRateLimiter rateLimiter = new GitHubRateLimiter(0.5, List.of("first", "second"), Duration.ofMinutes(15));
+        Map<String, Long> remaining = Map.of("Bearer first", 10L, "Bearer second", 4000L);
+        List<String> authorizations = new ArrayList<>();
+        ExchangeFunction github = request -> {
+            String authorization = request.headers().getFirst(HttpHeaders.AUTHORIZATION);
+            authorizations.add(authorization);
+            return Mono.just(rateLimited(HttpStatus.OK, remaining.get(authorization)));
+        };
+
+        rateLimiter.filter(REQUEST, github).block();
+        rateLimiter.filter(REQUEST, github).block();
+        rateLimiter.filter(REQUEST, github).block();
+        rateLimiter.filter(REQUEST, github).block();
+
+        assertThat(authorizations.subList(2, 4)).isEqualTo(List.of("Bearer second", "Bearer second"));
+        assertThat(rateLimiter.limit()).isEqualTo(10000);
+        assertThat(rateLimiter.remaining()).isEqualTo(4010);
+    }
+
+    @Test
+    void testNotModifiedResponsesDoNotDrainTheBudget() {
+        GitHubRateLimiter rateLimiter = new GitHubRateLimiter(0.5, List.of("token"), Duration.ofMinutes(15));
+        ExchangeFunction github = request -> Mono.just(rateLimited(HttpStatus.NOT_MODIFIED, 100));
+        ExchangeFunction githubWithoutHeaders = request -> Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.filter(REQUEST, github).block();
+        }
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.filter(REQUEST, githubWithoutHeaders).block();
+        }
+
+        assertThat(rateLimiter.remaining()).isEqualTo(100);
+        assertThat(rateLimiter.tokenBudgets().get(0).requestCount()).isEqualTo(10);
+    }
+
+    @Test
+    void testCancelAfterResponseReleasesInFlightSlotOnce() {
+        GitHubRateLimiter rateLimiter = new GitHubRateLimiter(0.5, List.of("token"), Duration.ofMinutes(15));
+        TokenBudget budget = rateLimiter.tokenBudgets().get(0);
+
+        Disposable pending = rateLimiter.filter(REQUEST, request -> Mono.never()).subscribe();
+        rateLimiter.filter(REQUEST, request -> Mono.just(rateLimited(HttpStatus.OK, 100)))
+                .subscribe(new BaseSubscriber<>() {
+                    @Override
+                    protected void hookOnNext(ClientResponse response) {
+                        cancel();
+                    }
+                });
+
+        assertThat(budget.inFlight()).isEqualTo(1);
+        pending.dispose();
+        assertThat(budget.inFlight()).isZero();
+    }
+
+    @Test
+    void testFilterQuarantinesRejectedTokenAndRetriesWithAnother() {
+        GitHubRateLimiter rateLimiter = new GitHubRateLimiter(0.5, List.of("revoked", "valid"), Duration.ofMinutes(15));
+        List<String> authorizations = new ArrayList<>();
+        ExchangeFunction github = request -> {
+            String authorization = request.headers().getFirst(HttpHeaders.AUTHORIZATION);
+            authorizations.add(authorization);
+            return Mono.just("Bearer revoked".equals(authorization)
+                    ? ClientResponse.create(HttpStatus.UNAUTHORIZED).build()
+                    : rateLimited(HttpStatus.OK, 100));
+        };
+
+        ClientResponse first = rateLimiter.filter(REQUEST, github).block();
+        ClientResponse second = rateLimiter.filter(REQUEST, github).block();
+
+        assertThat(first.statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(authorizations).isEqualTo(List.of("Bearer revoked", "Bearer valid", "Bearer valid"));
+        assertThat(rateLimiter.tokenBudgets().get(0).isQuarantined()).isTrue();
+        assertThat(rateLimiter.tokenBudgets().get(0).quarantineCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testFilterReturnsResourceForbiddenWithoutQuarantiningTokens() {
+        GitHubRateLimiter rateLimiter = new GitHubRateLimiter(0.5, List.of("first", "second"), Duration.ofMinutes(15));
+        List<String> authorizations = new ArrayList<>();
+        ExchangeFunction github = request -> {
+            authorizations.add(request.headers().getFirst(HttpHeaders.AUTHORIZATION));
+            return Mono.just(ClientResponse.create(HttpStatus.FORBIDDEN)
+                    .header(RateLimitHeaders.LIMIT, "5000")
+                    .header(RateLimitHeaders.REMAINING, "4000")
+                    .header(RateLimitHeaders.RESET, String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond()))
+                    .build());
+        };
+
+        ClientResponse response = rateLimiter.filter(REQUEST, github).block();
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(authorizations).hasSize(1);
+        assertThat(rateLimiter.tokenBudgets()).noneMatch(TokenBudget::isQuarantined);
+        assertThat(rateLimiter.remaining()).isEqualTo(4000);
+    }
+
+    @Test
+    void testFilterWithoutTokensSendsAnonymousRequests() {
+        GitHubRateLimiter rateLimiter = new GitHubRateLimiter(0.5, List.of(), Duration.ofMinutes(15));
+        ExchangeFunction github = request -> {
+            assertThat(request.headers().containsKey(HttpHeaders.AUTHORIZATION)).isFalse();
+            return Mono.just(ClientResponse.create(HttpStatus.UNAUTHORIZED).build());
+        };
+
+        ClientResponse response = rateLimiter.filter(REQUEST, github).block();
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(rateLimiter.tokenBudgets()).extracting(TokenBudget::id).containsExactly("anonymous");
+        assertThat(rateLimiter.tokenBudgets().get(0).isQuarantined()).isFalse();
+    }
+
+    private static ClientResponse rateLimited(HttpStatus status, long remaining) {
+        return ClientResponse.create(status)
+                .header(RateLimitHeaders.LIMIT, "5000")
+                .header(RateLimitHeaders.REMAINING, String.valueOf(remaining))
+                .header(RateLimitHeaders.RESET, String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond()))
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.githubrepository.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    @Test
+    void testCircuitBreakerOpensAboveFailureRateThreshold() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(0.5, 10, 4, Duration.ofMinutes(1));
+
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void testCircuitBreakerAllowsSingleTrialCallWhenHalfOpen() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(0.5, 10, 1, Duration.ZERO);
+
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+        circuitBreaker.onSuccess();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void testCircuitBreakerReopensWhenTrialCallFails() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(0.5, 10, 1, Duration.ZERO);
+
+        circuitBreaker.onFailure();
+        circuitBreaker.tryAcquire();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.githubrepository.service;
+
+import com.example.githubrepository.concurrency.Priority;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import config.TestConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = {
+        "github.admission.max-concurrent-requests=1",
+        "github.admission.max-queued-requests=0",
+        "github.admission.retry-after=3s"
+})
+@WireMockTest(httpPort = 8080)
+@ContextConfiguration(classes = TestConfig.class)
+@ActiveProfiles("test")
+public class AdmissionControlTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Test
+    void testRequestBeyondAdmissionLimitIsRejectedWithRetryAfter() {
+        Disposable inFlight = admissionControl.admit(Mono.never(), Priority.INTERACTIVE).subscribe();
+        try {
+            webTestClient.get()
+                    .uri("/api/github/users/{username}/repositories", "overloadedUser")
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                    .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "3");
+        } finally {
+            inFlight.dispose();
+        }
+    }
+
+    @Test
+    void testRejectionAfterAdmissionIsNotReportedAsOverload() {
+        RejectedExecutionException downstream = new RejectedExecutionException("Scheduler saturated");
+
+        assertThatThrownBy(() -> admissionControl.admit(Mono.error(downstream), Priority.INTERACTIVE).block())
+                .isSameAs(downstream);
+    }
+}
@@ -1,18 +1,37 @@
 package com.example.githubrepository.service;
 
+import com.example.githubrepository.dto.BatchRequest;
+import com.example.githubrepository.dto.RepositoryDto;
 import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.example.githubrepository.dto.RepositoryStatus;
+import com.example.githubrepository.dto.UserRepositoriesResult;
 import config.TestConfig;
+import com.example.githubrepository.model.Branch;
 import com.example.githubrepository.model.Repository;
+import com.example.githubrepository.tracing.RequestTraceFilter;
+import com.example.githubrepository.tracing.TraceSpan;
+import com.example.githubrepository.tracing.TraceWaterfall;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.assertj.core.api.Assertions.*;
 
@@ -25,6 +44,12 @@ public class GitHubRepositoryServiceTest {
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private GitHubRepositoryService gitHubRepositoryService;
+
     @Test
     void testListUserRepositories() {
         final String username = "testUser";
@@ -317,4 +342,757 @@ public class GitHubRepositoryServiceTest {
                 .jsonPath("$.status").isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value())
                 .jsonPath("$.message").isEqualTo(returnBodyMessage);
     }
+
+    @Test
+    void testListUserRepositoriesFollowsPagination() {
+        final String username = "paginatedUser";
+        final String[] repositoryNames = {"firstPageRepository", "secondPageRepository", "thirdPageRepository"};
+
+        for (int page = 1; page <= repositoryNames.length; page++) {
+            stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .withQueryParam("page", equalTo(String.valueOf(page)))
+                .willReturn(aResponse()
+                    .withHeader("Content-Type", "application/json")
+                    .withHeader("Link", "<http://localhost:8080/user/1/repos?per_page=100&page=3>; rel=\"last\"")
+                    .withBody("""
+                        [
+                            {
+                                "name": "%s",
+                                "owner": {
+                                    "login": "%s"
+                                },
+                                "fork": false
+                            }
+                        ]
+                        """.formatted(repositoryNames[page - 1], username))));
+
+            stubFor(get(urlPathEqualTo("/repos/" + username + "/" + repositoryNames[page - 1] + "/branches"))
+                .willReturn(aResponse()
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("[]")));
+        }
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryDtoArray.class)
+                .consumeWith(response -> {
+                    var repositories = response.getResponseBody();
+
+                    assertThat(repositories).isNotNull();
+                    assertThat(repositories.repositories())
+                            .extracting(RepositoryDto::name)
+                            .containsExactlyInAnyOrder(repositoryNames);
+                });
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos"))
+                .withQueryParam("per_page", equalTo("100"))
+                .withQueryParam("page", equalTo("1")));
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos"))
+                .withQueryParam("page", equalTo("2")));
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos"))
+                .withQueryParam("page", equalTo("3")));
+    }
+
+    @Test
+    void testListUserRepositoriesRevalidatesWithETag() {
+        final String username = "cachedUser";
+        final String repositoryName = "cachedRepository";
+        final String eTag = "\"repositories-v1\"";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withHeader("ETag", eTag)
+                .withBody("""
+                    [
+                        {
+                            "name": "%s",
+                            "owner": {
+                                "login": "%s"
+                            },
+                            "fork": false
+                        }
+                    ]
+                    """.formatted(repositoryName, username))));
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .withHeader("If-None-Match", equalTo(eTag))
+            .willReturn(aResponse()
+                .withStatus(HttpStatus.NOT_MODIFIED.value())
+                .withHeader("ETag", eTag)));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/" + repositoryName + "/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("[]")));
+
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri("/api/github/users/{username}/repositories", username)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(RepositoryDtoArray.class)
+                    .consumeWith(response -> {
+                        var repositories = response.getResponseBody();
+
+                        assertThat(repositories).isNotNull();
+                        assertThat(repositories.repositories()).hasSize(1);
+                        assertThat(repositories.repositories().getFirst().name()).isEqualTo(repositoryName);
+                    });
+        }
+
+        verify(2, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos"))
+                .withHeader("If-None-Match", equalTo(eTag)));
+    }
+
+    @Test
+    void testStreamUserRepositories() {
+        final String username = "streamingUser";
+        final String[] repositoryNames = {"firstRepository", "secondRepository"};
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [
+                        {
+                            "name": "%s",
+                            "owner": {
+                                "login": "%s"
+                            },
+                            "fork": false
+                        },
+                        {
+                            "name": "%s",
+                            "owner": {
+                                "login": "%s"
+                            },
+                            "fork": false
+                        }
+                    ]
+                    """.formatted(repositoryNames[0], username, repositoryNames[1], username))));
+
+        for (String repositoryName : repositoryNames) {
+            stubFor(get(urlPathEqualTo("/repos/" + username + "/" + repositoryName + "/branches"))
+                .willReturn(aResponse()
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("[]")));
+        }
+
+        var repositories = webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(RepositoryDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(repositories)
+                .extracting(RepositoryDto::name)
+                .containsExactlyInAnyOrder(repositoryNames);
+    }
+
+    @Test
+    void testListUserRepositoriesRateLimited() {
+        final String username = "rateLimitedUser";
+        final String responseBodyMessage = "Rate limit exceeded";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withStatus(HttpStatus.FORBIDDEN.value())
+                .withHeader("Content-Type", "application/json")
+                .withHeader("X-RateLimit-Limit", "60")
+                .withHeader("X-RateLimit-Remaining", "0")
+                .withHeader("X-RateLimit-Reset", String.valueOf(Instant.now().getEpochSecond()))
+                .withBody("""
+                    {
+                        "message": "API rate limit exceeded"
+                    }
+                    """)));
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value())
+                .jsonPath("$.message").isEqualTo(responseBodyMessage);
+    }
+
+    @Test
+    void testListUserRepositoriesRetriesTransientFailure() {
+        final String username = "retriedUser";
+        final String repositoryName = "testRepository";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .inScenario("transient failure")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(aResponse()
+                .withStatus(HttpStatus.BAD_GATEWAY.value()))
+            .willSetStateTo("recovered"));
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .inScenario("transient failure")
+            .whenScenarioStateIs("recovered")
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [
+                        {
+                            "name": "%s",
+                            "owner": {
+                                "login": "%s"
+                            },
+                            "fork": false
+                        }
+                    ]
+                    """.formatted(repositoryName, username))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/" + repositoryName + "/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("[]")));
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryDtoArray.class)
+                .consumeWith(response -> {
+                    var repositories = response.getResponseBody();
+
+                    assertThat(repositories).isNotNull();
+                    assertThat(repositories.repositories()).hasSize(1);
+                    assertThat(repositories.repositories().getFirst().name()).isEqualTo(repositoryName);
+                });
+
+        verify(2, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testListUserRepositoriesRecordsMetrics() {
+        final String username = "measuredUser";
+        final String repositoryName = "testRepository";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [
+                        {
+                            "name": "%s",
+                            "owner": {
+                                "login": "%s"
+                            },
+                            "fork": false
+                        }
+                    ]
+                    """.formatted(repositoryName, username))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/" + repositoryName + "/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("[]")));
+
+        long repositoryCalls = upstreamRequestCount("repositories");
+        long branchCalls = upstreamRequestCount("branches");
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(upstreamRequestCount("repositories")).isEqualTo(repositoryCalls + 1);
+        assertThat(upstreamRequestCount("branches")).isEqualTo(branchCalls + 1);
+        assertThat(meterRegistry.get("github.fan-out.width").summary().count()).isPositive();
+        assertThat(meterRegistry.get("github.upstream.payload").tag("endpoint", "repositories").summary().totalAmount())
+                .isPositive();
+    }
+
+    @Test
+    void testListUserRepositoriesWithinLatencyBudget() {
+        final String username = "budgetedUser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [
+                        {"name": "fastRepository", "owner": {"login": "%1$s"}, "fork": false},
+                        {"name": "slowRepository", "owner": {"login": "%1$s"}, "fork": false},
+                        {"name": "missingRepository", "owner": {"login": "%1$s"}, "fork": false}
+                    ]
+                    """.formatted(username))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/fastRepository/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [{"name": "main", "commit": {"sha": "fast-sha"}}]
+                    """)));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/slowRepository/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withFixedDelay(3000)
+                .withBody("[]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/missingRepository/branches"))
+            .willReturn(aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/github/users/{username}/repositories")
+                        .queryParam("budget", "500ms")
+                        .build(username))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryDtoArray.class)
+                .consumeWith(response -> {
+                    var repositories = response.getResponseBody();
+
+                    assertThat(repositories).isNotNull();
+                    assertThat(repositories.repositories())
+                            .extracting(RepositoryDto::name, RepositoryDto::status)
+                            .containsExactlyInAnyOrder(
+                                    tuple("fastRepository", RepositoryStatus.COMPLETE),
+                                    tuple("slowRepository", RepositoryStatus.TIMED_OUT),
+                                    tuple("missingRepository", RepositoryStatus.FAILED));
+                    assertThat(repositories.repositories())
+                            .filteredOn(repository -> repository.status() == RepositoryStatus.COMPLETE)
+                            .flatExtracting(RepositoryDto::branches)
+                            .extracting(branch -> branch.commit().sha())
+                            .containsExactly("fast-sha");
+                });
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .header("X-Latency-Budget", "soon")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testListUserRepositoriesWithinLatencyBudgetWaitsForSlowListing() {
+        final String username = "slowListingUser";
+        final String missingUsername = "slowMissingUser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withFixedDelay(1000)
+                .withBody("""
+                    [{"name": "lateRepository", "owner": {"login": "%s"}, "fork": false}]
+                    """.formatted(username))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/lateRepository/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("[]")));
+
+        stubFor(get(urlPathEqualTo("/users/" + missingUsername + "/repos"))
+            .willReturn(aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())
+                .withFixedDelay(1000)));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/github/users/{username}/repositories")
+                        .queryParam("budget", "200ms")
+                        .build(username))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryDtoArray.class)
+                .consumeWith(response -> assertThat(response.getResponseBody().repositories())
+                        .extracting(RepositoryDto::name, RepositoryDto::status)
+                        .containsExactly(tuple("lateRepository", RepositoryStatus.TIMED_OUT)));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/github/users/{username}/repositories")
+                        .queryParam("budget", "200ms")
+                        .build(missingUsername))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testBatchUserRepositoriesReportsErrorsInline() {
+        final String username = "batchUser";
+        final String missingUsername = "missingBatchUser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [
+                        {"name": "batchRepository", "owner": {"login": "%s"}, "fork": false}
+                    ]
+                    """.formatted(username))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/batchRepository/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [{"name": "main", "commit": {"sha": "batch-sha"}}]
+                    """)));
+
+        stubFor(get(urlPathEqualTo("/users/" + missingUsername + "/repos"))
+            .willReturn(aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())));
+
+        var results = webTestClient.post()
+                .uri("/api/github/users/repositories/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(new BatchRequest(List.of(username, missingUsername, username.toUpperCase())))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserRepositoriesResult.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(results).hasSize(2);
+        assertThat(results)
+                .filteredOn(result -> result.username().equals(username))
+                .flatExtracting(UserRepositoriesResult::repositories)
+                .extracting(RepositoryDto::name)
+                .containsExactly("batchRepository");
+        assertThat(results)
+                .filteredOn(result -> result.username().equals(missingUsername))
+                .extracting(result -> result.error().status())
+                .containsExactly(HttpStatus.NOT_FOUND.value());
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testBatchUserRepositoriesAcceptsLargeRequestBody() {
+        final String username = "largeBatchUserWithALongLogin";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("[]")));
+
+        var results = webTestClient.post()
+                .uri("/api/github/users/repositories/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(new BatchRequest(Collections.nCopies(20_000, username)))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserRepositoriesResult.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(results)
+                .extracting(UserRepositoriesResult::username)
+                .containsExactly(username);
+    }
+
+    @Test
+    void testListUserRepositoriesReusesBranchesOfUnchangedRepositories() {
+        final String username = "incrementalUser";
+        final String repositories = """
+                [
+                    {"name": "steadyRepository", "owner": {"login": "%1$s"}, "fork": false,
+                     "pushed_at": "2024-01-01T00:00:00Z", "updated_at": "2024-01-01T00:00:00Z"},
+                    {"name": "activeRepository", "owner": {"login": "%1$s"}, "fork": false,
+                     "pushed_at": "%2$s", "updated_at": "%2$s"}
+                ]
+                """;
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody(repositories.formatted(username, "2024-06-01T00:00:00Z"))));
+
+        for (String repositoryName : List.of("steadyRepository", "activeRepository")) {
+            stubFor(get(urlPathEqualTo("/repos/" + username + "/" + repositoryName + "/branches"))
+                .willReturn(aResponse()
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("""
+                        [{"name": "main", "commit": {"sha": "%s-sha"}}]
+                        """.formatted(repositoryName))));
+        }
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .exchange()
+                .expectStatus().isOk();
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody(repositories.formatted(username, "2024-07-01T00:00:00Z"))));
+
+        RepositoryDtoArray changed = webTestClient.get()
+                .uri("/api/github/users/{username}/repositories?since=2024-06-15T00:00:00Z", username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryDtoArray.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(changed).isNotNull();
+        assertThat(changed.repositories()).extracting(RepositoryDto::name).containsExactly("activeRepository");
+
+        RepositoryDtoArray all = webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryDtoArray.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(all).isNotNull();
+        assertThat(all.repositories()).extracting(RepositoryDto::name)
+                .containsExactlyInAnyOrder("steadyRepository", "activeRepository");
+        assertThat(all.repositories()).allSatisfy(repository -> assertThat(repository.branches()).hasSize(1));
+
+        verify(1, getRequestedFor(urlPathEqualTo("/repos/" + username + "/steadyRepository/branches")));
+        verify(2, getRequestedFor(urlPathEqualTo("/repos/" + username + "/activeRepository/branches")));
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories?since=yesterday", username)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testListUserRepositoriesProjectionSkipsBranchCalls() {
+        final String username = "projectionUser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [
+                        {"name": "project-api", "owner": {"login": "%1$s"}, "fork": false},
+                        {"name": "project-web", "owner": {"login": "%1$s"}, "fork": false},
+                        {"name": "dotfiles", "owner": {"login": "%1$s"}, "fork": false}
+                    ]
+                    """.formatted(username))));
+
+        stubFor(get(urlPathMatching("/repos/" + username + "/.*/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [{"name": "main", "commit": {"sha": "sha-1"}}, {"name": "dev", "commit": {"sha": "sha-2"}}]
+                    """)));
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories?fields=name&name=Project-*", username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .json("""
+                    {"repositories": [{"name": "project-api"}, {"name": "project-web"}]}
+                    """, true);
+
+        verify(0, getRequestedFor(urlPathMatching("/repos/" + username + "/.*/branches")));
+
+        RepositoryDtoArray truncated = webTestClient.get()
+                .uri("/api/github/users/{username}/repositories?maxBranches=1&name=dotfiles", username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryDtoArray.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(truncated).isNotNull();
+        assertThat(truncated.repositories()).hasSize(1);
+        assertThat(truncated.repositories().getFirst().branches()).extracting(Branch::name).containsExactly("main");
+        verify(1, getRequestedFor(urlPathMatching("/repos/" + username + "/.*/branches")));
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories?fields=name,size", username)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testConcurrentBudgetedListingsShareOneUpstreamFanOut() {
+        final String username = "budgetedFlightUser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withFixedDelay(300)
+                .withBody("""
+                    [{"name": "sharedRepository", "owner": {"login": "%s"}, "fork": false}]
+                    """.formatted(username))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/sharedRepository/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [{"name": "main", "commit": {"sha": "main-sha"}}]
+                    """)));
+
+        List<RepositoryDtoArray> results = Flux.merge(
+                        gitHubRepositoryService.getUserRepositories(username, Duration.ofSeconds(5)),
+                        gitHubRepositoryService.getUserRepositories(username, Duration.ofSeconds(5)),
+                        gitHubRepositoryService.getUserRepositories(username, Duration.ofMillis(100)))
+                .collectList()
+                .block();
+
+        assertThat(results)
+                .flatExtracting(RepositoryDtoArray::repositories)
+                .extracting(RepositoryDto::status)
+                .containsExactlyInAnyOrder(RepositoryStatus.COMPLETE, RepositoryStatus.COMPLETE, RepositoryStatus.TIMED_OUT);
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+        verify(1, getRequestedFor(urlPathEqualTo("/repos/" + username + "/sharedRepository/branches")));
+    }
+
+    @Test
+    void testConcurrentTruncatedBranchListingsShareOneUpstreamCall() {
+        final String username = "truncatedFlightUser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [{"name": "sharedRepository", "owner": {"login": "%s"}, "fork": false}]
+                    """.formatted(username))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/sharedRepository/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withFixedDelay(500)
+                .withBody("""
+                    [{"name": "main", "commit": {"sha": "main-sha"}}, {"name": "develop", "commit": {"sha": "develop-sha"}}]
+                    """)));
+
+        RepositoryQuery truncated = new RepositoryQuery(null, null, null, true, 1);
+        List<RepositoryDtoArray> results = Flux.merge(
+                        gitHubRepositoryService.getUserRepositories(username, null, truncated),
+                        gitHubRepositoryService.getUserRepositories(username, null, truncated))
+                .collectList()
+                .block();
+
+        assertThat(results)
+                .flatExtracting(RepositoryDtoArray::repositories)
+                .flatExtracting(RepositoryDto::branches)
+                .extracting(Branch::name)
+                .containsExactly("main", "main");
+        verify(1, getRequestedFor(urlPathEqualTo("/repos/" + username + "/sharedRepository/branches")));
+    }
+
+    @Test
+    void testListUserRepositoriesAnswersMatchingIfNoneMatchWithNotModified() {
+        final String username = "etagClientUser";
+        final String repositoryName = "etagClientRepository";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [
+                        {
+                            "name": "%s",
+                            "owner": {
+                                "login": "%s"
+                            },
+                            "fork": false
+                        }
+                    ]
+                    """.formatted(repositoryName, username))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/" + repositoryName + "/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("[]")));
+
+        String eTag = webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .returnResult(RepositoryDtoArray.class)
+                .getResponseHeaders()
+                .getETag();
+
+        assertThat(eTag).startsWith("\"");
+
+        webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void testListUserRepositoriesReportsServerTimingAndWaterfall() {
+        final String username = "tracedUser";
+        final String repositoryName = "tracedRepository";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [
+                        {
+                            "name": "%s",
+                            "owner": {
+                                "login": "%s"
+                            },
+                            "fork": false
+                        }
+                    ]
+                    """.formatted(repositoryName, username))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/" + repositoryName + "/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("[]")));
+
+        HttpHeaders headers = webTestClient.get()
+                .uri("/api/github/users/{username}/repositories", username)
+                .header(RequestTraceFilter.DEBUG_TRACE_HEADER, "true")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(RepositoryDtoArray.class)
+                .getResponseHeaders();
+
+        String traceId = headers.getFirst(RequestTraceFilter.TRACE_ID_HEADER);
+        assertThat(traceId).isNotNull();
+        assertThat(headers.getFirst(RequestTraceFilter.SERVER_TIMING_HEADER))
+                .contains("repositories;desc=\"1 call\";dur=", "branches;desc=\"1 call\";dur=", "encode;dur=", "total;dur=");
+
+        webTestClient.get()
+                .uri("/api/github/traces/{traceId}", traceId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TraceWaterfall.class)
+                .consumeWith(response -> {
+                    var waterfall = response.getResponseBody();
+
+                    assertThat(waterfall).isNotNull();
+                    assertThat(waterfall.spans())
+                            .extracting(TraceSpan::uriTemplate)
+                            .containsExactly("/users/{username}/repos", "/repos/{username}/{repository}/branches", null);
+                    assertThat(waterfall.spans()).extracting(TraceSpan::status).containsExactly(200, 200, null);
+                });
+    }
+
+    private long upstreamRequestCount(String endpoint) {
+        return meterRegistry.find("github.upstream.requests")
+                .tag("endpoint", endpoint)
+                .timers()
+                .stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
 }
\ No newline at end of file
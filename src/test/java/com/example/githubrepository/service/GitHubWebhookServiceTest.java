@@ -0,0 +1,104 @@
+package com.example.githubrepository.service;
+
+import com.example.githubrepository.cache.BranchSnapshotCache;
+import com.example.githubrepository.cache.NegativeCache;
+import com.example.githubrepository.cache.UserRepositoriesCache;
+import com.example.githubrepository.dto.RepositoryDto;
+import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.example.githubrepository.dto.RepositoryStatus;
+import com.example.githubrepository.exception.AccessDeniedException;
+import com.example.githubrepository.model.Branch;
+import com.example.githubrepository.model.Commit;
+import com.example.githubrepository.model.Owner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class GitHubWebhookServiceTest {
+    private static final String SECRET = "webhook-secret";
+    private static final Instant PUSHED_AT = Instant.parse("2024-05-06T08:10:02Z");
+
+    private final UserRepositoriesCache userRepositoriesCache =
+            new UserRepositoriesCache(true, 100, Duration.ofMinutes(5), Duration.ofMinutes(30));
+    private final BranchSnapshotCache branchSnapshotCache = new BranchSnapshotCache(true, 100);
+    private final GitHubWebhookService webhookService = new GitHubWebhookService(SECRET, new ObjectMapper(),
+            userRepositoriesCache, branchSnapshotCache, new NegativeCache(true, 100, Duration.ofMinutes(1)));
+
+    @Test
+    void testPushPatchesCachedBranchShas() throws Exception {
+        cacheHelloWorld();
+        byte[] payload = payload("push.json");
+
+        String outcome = webhookService.handle("push", sign(payload), payload);
+
+        Instant pushedAt = Instant.parse("2024-05-06T08:15:21Z");
+        List<Branch> expected = List.of(
+                new Branch("main", new Commit("0d1a26e67d8f5eaf1f6ba5c57fc3c7d91ac0fd1c")),
+                new Branch("develop", new Commit("develop-sha")));
+        assertThat(outcome).isEqualTo(GitHubWebhookService.APPLIED);
+        assertThat(userRepositoriesCache.get("octocat").get().repositories().repositories().get(0).branches())
+                .isEqualTo(expected);
+        assertThat(branchSnapshotCache.get("octocat", "Hello-World", pushedAt)).contains(expected);
+        assertThat(branchSnapshotCache.get("octocat", "Hello-World", PUSHED_AT)).isEmpty();
+    }
+
+    @Test
+    void testRenamedRepositoryIsRenamedInCachedResult() throws Exception {
+        cacheHelloWorld();
+        byte[] payload = payload("repository-renamed.json");
+
+        String outcome = webhookService.handle("repository", sign(payload), payload);
+
+        assertThat(outcome).isEqualTo(GitHubWebhookService.APPLIED);
+        assertThat(userRepositoriesCache.get("octocat").get().repositories().repositories())
+                .extracting(RepositoryDto::name)
+                .containsExactly("Hello-Universe");
+        assertThat(branchSnapshotCache.size()).isZero();
+    }
+
+    @Test
+    void testInvalidSignatureIsRejectedWithoutTouchingCaches() throws Exception {
+        cacheHelloWorld();
+        byte[] payload = payload("push.json");
+
+        assertThatThrownBy(() -> webhookService.handle("push", "sha256=" + "0".repeat(64), payload))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> webhookService.handle("push", null, payload))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThat(userRepositoriesCache.get("octocat").get().repositories().repositories().get(0).branches())
+                .extracting(branch -> branch.commit().sha())
+                .containsExactly("main-sha", "develop-sha");
+    }
+
+    private void cacheHelloWorld() {
+        List<Branch> branches = List.of(
+                new Branch("main", new Commit("main-sha")),
+                new Branch("develop", new Commit("develop-sha")));
+        userRepositoriesCache.put("octocat", new RepositoryDtoArray(List.of(new RepositoryDto("Hello-World",
+                new Owner("octocat"), branches, false, RepositoryStatus.COMPLETE))));
+        branchSnapshotCache.put("octocat", "Hello-World", PUSHED_AT, branches);
+    }
+
+    private static byte[] payload(String name) throws IOException {
+        try (InputStream payload = GitHubWebhookServiceTest.class.getResourceAsStream("/webhooks/" + name)) {
+            return payload.readAllBytes();
+        }
+    }
+
+    private static String sign(byte[] payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.githubrepository.service;
+
+import config.TestConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "github.cache.result.enabled=true",
+        "github.cache.result.refresh.enabled=true",
+        "github.cache.result.refresh.interval=30s"
+})
+@ContextConfiguration(classes = TestConfig.class)
+@ActiveProfiles("test")
+public class HotUserRefresherTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void testContextLoadsWithRefresherScheduled() {
+        assertThat(applicationContext.getBeansOfType(HotUserRefresher.class)).hasSize(1);
+    }
+}
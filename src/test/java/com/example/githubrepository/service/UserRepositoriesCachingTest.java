@@ -0,0 +1,84 @@
+package com.example.githubrepository.service;
+
+import com.example.githubrepository.dto.RepositoryDto;
+import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.example.githubrepository.dto.RepositoryStatus;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import config.TestConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = "github.cache.result.enabled=true")
+@WireMockTest(httpPort = 8080)
+@ContextConfiguration(classes = TestConfig.class)
+@ActiveProfiles("test")
+public class UserRepositoriesCachingTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testListingCutShortByLatencyBudgetIsNotCached() {
+        final String username = "slowListingUser";
+        stubRepositories(username, 1000);
+
+        for (int request = 0; request < 2; request++) {
+            requestWithinBudget(username, "200ms")
+                    .consumeWith(response -> assertThat(response.getResponseBody().repositories())
+                            .extracting(RepositoryDto::status)
+                            .containsExactly(RepositoryStatus.TIMED_OUT));
+        }
+
+        verify(2, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testListingCompletedWithinLatencyBudgetIsCached() {
+        final String username = "fastListingUser";
+        stubRepositories(username, 0);
+
+        for (int request = 0; request < 2; request++) {
+            requestWithinBudget(username, "5s")
+                    .consumeWith(response -> assertThat(response.getResponseBody().repositories())
+                            .extracting(RepositoryDto::status)
+                            .containsExactly(RepositoryStatus.COMPLETE));
+        }
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    private WebTestClient.BodySpec<RepositoryDtoArray, ?> requestWithinBudget(String username, String budget) {
+        return webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/github/users/{username}/repositories")
+                        .queryParam("budget", budget)
+                        .build(username))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryDtoArray.class);
+    }
+
+    private static void stubRepositories(String username, int listingDelayMillis) {
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withFixedDelay(listingDelayMillis)
+                .withBody("""
+                    [{"name": "repository", "owner": {"login": "%s"}, "fork": false}]
+                    """.formatted(username))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/repository/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [{"name": "main", "commit": {"sha": "main-sha"}}]
+                    """)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.githubrepository.service;
+
+import com.example.githubrepository.cache.UserRepositoriesCache;
+import com.example.githubrepository.dto.RepositoryDto;
+import com.example.githubrepository.dto.RepositoryDtoArray;
+import com.example.githubrepository.dto.RepositoryStatus;
+import com.example.githubrepository.exception.BranchRetrievalException;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import config.TestConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "github.cache.result.enabled=true",
+        "github.latency-budget.default=200ms"
+})
+@WireMockTest(httpPort = 8080)
+@ContextConfiguration(classes = TestConfig.class)
+@ActiveProfiles("test")
+public class UserRepositoriesRefreshTest {
+
+    @Autowired
+    private GitHubRepositoryService gitHubRepositoryService;
+
+    @Autowired
+    private UserRepositoriesCache userRepositoriesCache;
+
+    @Test
+    void testRefreshIgnoresDefaultLatencyBudget() {
+        final String username = "slowBranchesRefreshUser";
+        stubRepositories(username);
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/repository/branches"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withFixedDelay(1000)
+                .withBody("""
+                    [{"name": "main", "commit": {"sha": "main-sha"}}]
+                    """)));
+
+        RepositoryDtoArray refreshed = gitHubRepositoryService.refreshUserRepositories(username).block();
+
+        assertThat(refreshed.repositories())
+                .extracting(RepositoryDto::status)
+                .containsExactly(RepositoryStatus.COMPLETE);
+        assertThat(userRepositoriesCache.get(username))
+                .hasValueSatisfying(cached -> assertThat(cached.repositories()).isEqualTo(refreshed));
+    }
+
+    @Test
+    void testRefreshWithFailedBranchesIsNotCached() {
+        final String username = "failedBranchesRefreshUser";
+        stubRepositories(username);
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/repository/branches"))
+            .willReturn(aResponse().withStatus(404)));
+
+        assertThatThrownBy(() -> gitHubRepositoryService.refreshUserRepositories(username).block())
+                .isInstanceOf(BranchRetrievalException.class);
+        assertThat(userRepositoriesCache.get(username)).isEmpty();
+    }
+
+    private static void stubRepositories(String username) {
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    [{"name": "repository", "owner": {"login": "%s"}, "fork": false}]
+                    """.formatted(username))));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.githubrepository.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class RequestTraceTest {
+
+    @Test
+    void testServerTimingAggregatesSpansByName() {
+        RequestTrace trace = new RequestTrace("trace", "GET", "/api/github/users/testUser/repositories");
+        long start = System.nanoTime();
+
+        trace.record("branches", "/repos/{username}/{repository}/branches", start, start + 10_000_000, 200, false);
+        trace.record("branches", "/repos/{username}/{repository}/branches", start + 5_000_000, start + 20_000_000, 304, true);
+        trace.record("encode", null, start + 20_000_000, start + 21_500_000, null, false);
+        trace.finish(200);
+
+        assertThat(trace.serverTiming())
+                .startsWith("branches;desc=\"2 calls, 1 cached\";dur=20.00, encode;dur=1.50, total;dur=");
+    }
+
+    @Test
+    void testWaterfallOrdersSpansByStart() {
+        RequestTrace trace = new RequestTrace("trace", "GET", "/api/github/users/testUser/repositories");
+        long start = System.nanoTime();
+
+        trace.record("branches", "/repos/{username}/{repository}/branches", start + 5_000_000, start + 6_000_000, 200, false);
+        trace.record("repositories", "/users/{username}/repos", start, start + 4_000_000, 200, false);
+        trace.finish(200);
+
+        TraceWaterfall waterfall = trace.toWaterfall();
+
+        assertThat(waterfall.spans()).extracting(TraceSpan::name).containsExactly("repositories", "branches");
+        assertThat(waterfall.spans().get(0).durationMillis()).isEqualTo(4.0);
+        assertThat(waterfall.status()).isEqualTo(200);
+    }
+}